@@ -0,0 +1,105 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.utils.Numeric;
+
+/**
+ * Building and encoding the calldata of {@link io.blk.erc20.generated.HumanStandardToken}
+ * function calls, as done for every transaction and call we send, through the generic
+ * {@link FunctionEncoder} and the {@link TokenCalldata} fast path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbiBenchmark {
+
+    private final String owner = "0xed9d02e382b34818e88b88a309c7fe71e65f419d";
+
+    private final String recipient = "0xca843569e3427144cead5e4d5999a3d0ccf92b8e";
+
+    private final BigInteger value = BigInteger.valueOf(1_000_000_000L);
+
+    private final String encodedValue = Numeric.toHexStringWithPrefixZeroPadded(value, 64);
+
+    private final List<TypeReference<Type>> outputParameters =
+            TokenFunctions.balanceOf(owner).getOutputParameters();
+
+    @Benchmark
+    public String transfer() {
+        return FunctionEncoder.encode(TokenFunctions.transfer(recipient, value));
+    }
+
+    @Benchmark
+    public String transferFrom() {
+        return FunctionEncoder.encode(TokenFunctions.transferFrom(owner, recipient, value));
+    }
+
+    @Benchmark
+    public String approve() {
+        return FunctionEncoder.encode(TokenFunctions.approve(recipient, value));
+    }
+
+    @Benchmark
+    public String balanceOf() {
+        return FunctionEncoder.encode(TokenFunctions.balanceOf(owner));
+    }
+
+    @Benchmark
+    public String allowance() {
+        return FunctionEncoder.encode(TokenFunctions.allowance(owner, recipient));
+    }
+
+    @Benchmark
+    public String transferFast() {
+        return TokenCalldata.transfer(recipient, value);
+    }
+
+    @Benchmark
+    public String transferFromFast() {
+        return TokenCalldata.transferFrom(owner, recipient, value);
+    }
+
+    @Benchmark
+    public String approveFast() {
+        return TokenCalldata.approve(recipient, value);
+    }
+
+    @Benchmark
+    public String balanceOfFast() {
+        return TokenCalldata.balanceOf(owner);
+    }
+
+    @Benchmark
+    public String allowanceFast() {
+        return TokenCalldata.allowance(owner, recipient);
+    }
+
+    @Benchmark
+    public BigInteger decodeUint256() {
+        return TokenCalldata.decodeUint256(encodedValue);
+    }
+
+    @Benchmark
+    public Object decodeUint256Generic() {
+        return FunctionReturnDecoder.decode(encodedValue, outputParameters).get(0).getValue();
+    }
+}
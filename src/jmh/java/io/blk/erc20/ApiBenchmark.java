@@ -0,0 +1,166 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The servlet stack against the reactive one, serving the same bursts of concurrent requests
+ * that each wait on a node with some latency, the in-process {@link Erc20TestNode}.
+ *
+ * <p>Without {@link NodeConfiguration#isAsyncRequests()} the servlet stack blocks one of
+ * Tomcat's threads on each request, and the reactive one a thread of its elastic scheduler.
+ * With it both wait on web3j's asynchronous calls to the node instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiBenchmark {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    /** Number of requests sent at once in each operation. */
+    @Param({"16", "256"})
+    private int concurrency;
+
+    @Param({"false", "true"})
+    private boolean asyncRequests;
+
+    /** Whether the identical requests of each operation share calls to the node. */
+    @Param({"false", "true"})
+    private boolean coalesceCalls;
+
+    /** Milliseconds the test node takes to reply to each call. */
+    @Param({"5"})
+    private long nodeLatency;
+
+    private Erc20TestNode testNode;
+
+    private ConfigurableApplicationContext context;
+
+    private OkHttpClient client;
+
+    private Request totalSupply;
+
+    @Setup
+    public void setUp() throws IOException {
+        testNode = Erc20TestNode.start();
+        context = new SpringApplicationBuilder(Application.class)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "spring.main.web-application-type=" + stack,
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "io.blk.erc20.nodeEndpoint=" + testNode.getUrl(),
+                        "io.blk.erc20.fromAddress=" + Erc20TestNode.DEFAULT_ACCOUNT,
+                        "io.blk.erc20.asyncRequests=" + asyncRequests,
+                        "io.blk.erc20.coalesceCalls=" + coalesceCalls,
+                        "io.blk.erc20.httpMaxRequests=" + concurrency,
+                        "io.blk.erc20.httpMaxRequestsPerHost=" + concurrency)
+                .run();
+        String url = "http://localhost:"
+                + context.getEnvironment().getProperty("local.server.port");
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(concurrency);
+        dispatcher.setMaxRequestsPerHost(concurrency);
+        client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(concurrency, 5, TimeUnit.MINUTES))
+                .build();
+
+        Controller.ContractSpecification contractSpecification =
+                new Controller.ContractSpecification(
+                        BigInteger.valueOf(1000000), "Quorum Token", BigInteger.valueOf(25), "QT");
+        Request deploy = new Request.Builder()
+                .url(url + "/deploy")
+                .post(RequestBody.create(
+                        JSON, new ObjectMapper().writeValueAsBytes(contractSpecification)))
+                .build();
+        String contractAddress;
+        try (Response response = client.newCall(deploy).execute()) {
+            contractAddress = response.body().string();
+        }
+        totalSupply = new Request.Builder()
+                .url(url + "/" + contractAddress + "/totalSupply")
+                .build();
+
+        // Only the node's latency is wanted from here on
+        testNode.setLatency(nodeLatency, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        context.close();
+        testNode.close();
+    }
+
+    @Benchmark
+    public Object totalSupply() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = send(totalSupply);
+        }
+        return CompletableFuture.allOf(responses).join();
+    }
+
+    private CompletableFuture<String> send(Request request) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    if (response.isSuccessful()) {
+                        result.complete(response.body().string());
+                    } else {
+                        result.completeExceptionally(
+                                new IOException("Unexpected response " + response.code()));
+                    }
+                } finally {
+                    response.close();
+                }
+            }
+        });
+        return result;
+    }
+}
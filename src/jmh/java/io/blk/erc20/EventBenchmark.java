@@ -0,0 +1,150 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.quorum.Quorum;
+import org.web3j.tx.ReadonlyTransactionManager;
+import org.web3j.tx.gas.DefaultGasProvider;
+import org.web3j.utils.Numeric;
+
+/**
+ * Extracting Transfer and Approval events from a transaction receipt with the generated
+ * wrapper, and mapping them to our own responses, against decoding them with
+ * {@link TokenLogs}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBenchmark {
+
+    private static final String CONTRACT_ADDRESS = "0x4d8b7e26b6f2b9a2c4a3b8d5a1d2e3f4a5b6c7d8";
+
+    private static final String OWNER = "0xed9d02e382b34818e88b88a309c7fe71e65f419d";
+
+    private static final String RECIPIENT = "0xca843569e3427144cead5e4d5999a3d0ccf92b8e";
+
+    /** Number of Transfer logs in the receipt, followed by as many Approval logs. */
+    @Param({"1", "100"})
+    private int logs;
+
+    private HumanStandardToken humanStandardToken;
+
+    private TransactionReceipt transactionReceipt;
+
+    @Setup
+    public void setUp() {
+        // Never sends a request, the wrapper only needs a client to be constructed
+        Quorum quorum = Quorum.build(new HttpService());
+        humanStandardToken = HumanStandardToken.load(
+                CONTRACT_ADDRESS, quorum, new ReadonlyTransactionManager(quorum, OWNER),
+                new DefaultGasProvider());
+
+        List<Log> receiptLogs = new ArrayList<>();
+        for (int i = 0; i < logs; i++) {
+            receiptLogs.add(log(TokenEvents.TRANSFER_TOPIC, OWNER, RECIPIENT, i));
+        }
+        for (int i = 0; i < logs; i++) {
+            receiptLogs.add(log(TokenEvents.APPROVAL_TOPIC, OWNER, RECIPIENT, logs + i));
+        }
+        transactionReceipt = new TransactionReceipt();
+        transactionReceipt.setTransactionHash(
+                "0x8f2f3a1b7c6d5e4f3a2b1c0d9e8f7a6b5c4d3e2f1a0b9c8d7e6f5a4b3c2d1e0f");
+        transactionReceipt.setStatus("0x1");
+        transactionReceipt.setLogs(receiptLogs);
+    }
+
+    @Benchmark
+    public List<HumanStandardToken.TransferEventResponse> getTransferEvents() {
+        return humanStandardToken.getTransferEvents(transactionReceipt);
+    }
+
+    @Benchmark
+    public List<HumanStandardToken.ApprovalEventResponse> getApprovalEvents() {
+        return humanStandardToken.getApprovalEvents(transactionReceipt);
+    }
+
+    @Benchmark
+    public List<ContractService.TransferEventResponse> transferEventResponses() {
+        return humanStandardToken.getTransferEvents(transactionReceipt).stream()
+                .map(ContractService.TransferEventResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ContractService.ApprovalEventResponse> approvalEventResponses() {
+        return humanStandardToken.getApprovalEvents(transactionReceipt).stream()
+                .map(ContractService.ApprovalEventResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ContractService.TransferEventResponse> transferEventResponsesFast() {
+        List<ContractService.TransferEventResponse> result = new ArrayList<>();
+        for (Log log : transactionReceipt.getLogs()) {
+            if (TokenLogs.type(log) == IndexedEvent.Type.TRANSFER) {
+                result.add(new ContractService.TransferEventResponse(log));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ContractService.ApprovalEventResponse> approvalEventResponsesFast() {
+        List<ContractService.ApprovalEventResponse> result = new ArrayList<>();
+        for (Log log : transactionReceipt.getLogs()) {
+            if (TokenLogs.type(log) == IndexedEvent.Type.APPROVAL) {
+                result.add(new ContractService.ApprovalEventResponse(log));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<IndexedEvent> indexedEvents() {
+        List<IndexedEvent> result = new ArrayList<>();
+        for (Log log : transactionReceipt.getLogs()) {
+            result.add(IndexedEvent.fromLog(log));
+        }
+        return result;
+    }
+
+    private Log log(String eventTopic, String from, String to, int logIndex) {
+        Log log = new Log();
+        log.setAddress(CONTRACT_ADDRESS);
+        log.setTransactionHash(
+                "0x8f2f3a1b7c6d5e4f3a2b1c0d9e8f7a6b5c4d3e2f1a0b9c8d7e6f5a4b3c2d1e0f");
+        log.setBlockNumber("0x10");
+        log.setLogIndex(Numeric.encodeQuantity(BigInteger.valueOf(logIndex)));
+        log.setTopics(Arrays.asList(eventTopic, topic(from), topic(to)));
+        log.setData(Numeric.toHexStringWithPrefixZeroPadded(
+                BigInteger.valueOf(1000 + logIndex), 64));
+        return log;
+    }
+
+    private static String topic(String address) {
+        return Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(address), 64);
+    }
+}
@@ -0,0 +1,73 @@
+package io.blk.erc20;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing the responses of transaction requests to JSON, as done by Spring for each
+ * response we return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final int TRANSFERS = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TransactionResponse<ContractService.TransferEventResponse> transactionResponse;
+
+    private List<TransferResult> transferResults;
+
+    @Setup
+    public void setUp() {
+        transactionResponse = new TransactionResponse<>(
+                "0x8f2f3a1b7c6d5e4f3a2b1c0d9e8f7a6b5c4d3e2f1a0b9c8d7e6f5a4b3c2d1e0f",
+                transferEventResponse(1000));
+
+        transferResults = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            TransferResult transferResult = new TransferResult();
+            transferResult.setTransactionHash(transactionResponse.getTransactionHash());
+            transferResult.setEvent(transferEventResponse(i));
+            transferResults.add(transferResult);
+        }
+    }
+
+    @Benchmark
+    public byte[] transactionResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactionResponse);
+    }
+
+    @Benchmark
+    public byte[] transferResults() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transferResults);
+    }
+
+    private static ContractService.TransferEventResponse transferEventResponse(long value) {
+        ContractService.TransferEventResponse transferEventResponse =
+                new ContractService.TransferEventResponse();
+        transferEventResponse.setFrom("0xed9d02e382b34818e88b88a309c7fe71e65f419d");
+        transferEventResponse.setTo("0xca843569e3427144cead5e4d5999a3d0ccf92b8e");
+        transferEventResponse.setValue(value);
+        return transferEventResponse;
+    }
+}
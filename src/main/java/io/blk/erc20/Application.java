@@ -1,12 +1,18 @@
 package io.blk.erc20;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.google.common.base.Predicates;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.Banner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.web3j.protocol.Web3jService;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.protocol.ipc.UnixIpcService;
@@ -22,7 +28,6 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 /**
  * Our main application class.
  */
-@EnableSwagger2
 @SpringBootApplication
 public class Application {
 
@@ -36,36 +41,64 @@ public class Application {
     NodeConfiguration nodeConfiguration;
 
     @Bean
-    Quorum quorum() {
+    Quorum quorum(
+            NodeHttpClient nodeHttpClient, NodePool nodePool, MeterRegistry meterRegistry) {
         String nodeEndpoint = nodeConfiguration.getNodeEndpoint();
         Web3jService web3jService;
-        if (nodeEndpoint == null || nodeEndpoint.equals("")) {
-            web3jService = new HttpService();
+        if (nodePool.isEnabled()) {
+            web3jService = new RoutingService(nodePool);
+        } else if (nodeEndpoint == null || nodeEndpoint.equals("")) {
+            web3jService = new HttpService(nodeHttpClient.getClient());
         } else if (nodeEndpoint.startsWith("http")) {
-            web3jService = new HttpService(nodeEndpoint);
+            web3jService = new HttpService(nodeEndpoint, nodeHttpClient.getClient());
+        } else if (ReconnectingWebSocketService.isWebSocket(nodeEndpoint)) {
+            ReconnectingWebSocketService webSocketService = new ReconnectingWebSocketService(
+                    nodeEndpoint, nodeConfiguration.getWebSocketReconnectDelay());
+            webSocketService.connect();
+            web3jService = webSocketService;
         } else if (System.getProperty("os.name").toLowerCase().startsWith("win")) {
             web3jService = new WindowsIpcService(nodeEndpoint);
         } else {
             web3jService = new UnixIpcService(nodeEndpoint);
         }
-        return Quorum.build(web3jService);
+        return Quorum.build(new MeteredService(web3jService, meterRegistry));
     }
 
+    /**
+     * Serve {@link ReactiveController} on Netty, which Tomcat would otherwise take precedence
+     * over, when run with {@code spring.main.web-application-type=reactive}.
+     */
     @Bean
-    public Docket lenderApi() {
-        return new Docket(DocumentationType.SWAGGER_2)
-                .apiInfo(apiInfo())
-                .select()
-                // see https://github.com/springfox/springfox/issues/631
-                .apis(Predicates.not(
-                        RequestHandlerSelectors.basePackage("org.springframework.boot")))
-                .build();
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
     }
 
-    private ApiInfo apiInfo() {
-        return new ApiInfoBuilder()
-                .title("ERC-20 API")
-                .description("ERC-20 token standard RESTful service")
-                .build();
+    /**
+     * Swagger documentation, of the servlet API only.
+     */
+    @Configuration
+    @EnableSwagger2
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class SwaggerConfiguration {
+
+        @Bean
+        public Docket lenderApi() {
+            return new Docket(DocumentationType.SWAGGER_2)
+                    .apiInfo(apiInfo())
+                    .genericModelSubstitutes(CompletableFuture.class)
+                    .select()
+                    // see https://github.com/springfox/springfox/issues/631
+                    .apis(Predicates.not(
+                            RequestHandlerSelectors.basePackage("org.springframework.boot")))
+                    .build();
+        }
+
+        private ApiInfo apiInfo() {
+            return new ApiInfoBuilder()
+                    .title("ERC-20 API")
+                    .description("ERC-20 token standard RESTful service")
+                    .build();
+        }
     }
 }
@@ -0,0 +1,300 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.quorum.Quorum;
+import org.web3j.utils.Numeric;
+
+/**
+ * Read-through cache of token balances and allowances, invalidated by the Transfer and
+ * Approval logs published by {@link TokenEvents}.
+ *
+ * <p>Each value records the block it was read at. Values are only cached for tokens whose logs
+ * are being followed from at least that block, and which have seen no later change, so no
+ * change can be missed. Reads are served as of the last block polled for logs, or the block of
+ * the last change we saw, whichever is later.
+ *
+ * <p>Up to {@link NodeConfiguration#getBalanceCacheContracts()} tokens are followed, the least
+ * recently read are no longer followed once over that, dropping their cached values. Addresses
+ * without code are never followed, so mistyped addresses don't add to every poll for logs.
+ */
+@Component
+public class BalanceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCache.class);
+
+    private final TokenEvents tokenEvents;
+
+    private final Quorum quorum;
+
+    private final boolean enabled;
+
+    private final Cache<OwnerKey, OwnerEntry> owners;
+
+    private final Cache<String, Subscription> subscriptions;
+
+    @Autowired
+    public BalanceCache(
+            TokenEvents tokenEvents, Quorum quorum, NodeConfiguration nodeConfiguration) {
+        this.tokenEvents = tokenEvents;
+        this.quorum = quorum;
+        this.enabled = nodeConfiguration.getBalanceCacheSize() > 0
+                && nodeConfiguration.getBalanceCacheContracts() > 0;
+        this.owners = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, nodeConfiguration.getBalanceCacheSize()))
+                .build();
+        this.subscriptions = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, nodeConfiguration.getBalanceCacheContracts()))
+                .removalListener(this::unsubscribe)
+                .build();
+    }
+
+    public CachedValue balance(String contractAddress, String ownerAddress) {
+        OwnerEntry ownerEntry = owners.getIfPresent(new OwnerKey(contractAddress, ownerAddress));
+        return ownerEntry == null ? null : ownerEntry.balance;
+    }
+
+    public CachedValue allowance(
+            String contractAddress, String ownerAddress, String spenderAddress) {
+        OwnerEntry ownerEntry = owners.getIfPresent(new OwnerKey(contractAddress, ownerAddress));
+        return ownerEntry == null
+                ? null : ownerEntry.allowances.get(TokenEvents.normalise(spenderAddress));
+    }
+
+    /**
+     * Start a read of a token's state, following its logs if we aren't already.
+     *
+     * @return where to read the value, without a block if it can't be cached yet
+     */
+    public Read read(String contractAddress) {
+        if (!enabled) {
+            return new Read(null);
+        }
+        Subscription subscription = subscriptions.asMap().computeIfAbsent(
+                TokenEvents.normalise(contractAddress), key -> new Subscription());
+        if (subscription.started.compareAndSet(false, true)) {
+            subscribe(TokenEvents.normalise(contractAddress), subscription);
+        }
+        BigInteger coveredBlock = tokenEvents.coveredBlock(contractAddress);
+        if (coveredBlock == null) {
+            return new Read(null);
+        }
+        BigInteger changedBlock = subscription.changedBlock.get();
+        return new Read(changedBlock == null ? coveredBlock : coveredBlock.max(changedBlock));
+    }
+
+    public void putBalance(
+            String contractAddress, String ownerAddress, Read read, BigInteger value) {
+        put(contractAddress, ownerAddress, read,
+                ownerEntry -> ownerEntry.balance = new CachedValue(value, read.blockNumber));
+    }
+
+    public void putAllowance(
+            String contractAddress, String ownerAddress, String spenderAddress,
+            Read read, BigInteger value) {
+        put(contractAddress, ownerAddress, read,
+                ownerEntry -> ownerEntry.allowances.put(
+                        TokenEvents.normalise(spenderAddress),
+                        new CachedValue(value, read.blockNumber)));
+    }
+
+    /**
+     * Evict the entries affected by the given logs, such as those of a receipt we hold.
+     */
+    public void evict(List<Log> logs) {
+        for (Log log : logs) {
+            evict(log);
+        }
+    }
+
+    private void put(
+            String contractAddress, String ownerAddress, Read read,
+            Consumer<OwnerEntry> update) {
+        if (read.blockNumber == null) {
+            return;
+        }
+        Subscription subscription =
+                subscriptions.getIfPresent(TokenEvents.normalise(contractAddress));
+        OwnerKey key = new OwnerKey(contractAddress, ownerAddress);
+        OwnerEntry ownerEntry = owners.asMap().computeIfAbsent(key, k -> new OwnerEntry());
+        synchronized (ownerEntry) {
+            // Skip the value if the token changed after the block it was read at
+            BigInteger changedBlock = subscription == null ? null : subscription.changedBlock.get();
+            if (subscription != null
+                    && (changedBlock == null || changedBlock.compareTo(read.blockNumber) <= 0)) {
+                update.accept(ownerEntry);
+            }
+        }
+    }
+
+    /**
+     * Follow the logs of a token, once we know there's a contract at its address.
+     */
+    private void subscribe(String contractAddress, Subscription subscription) {
+        quorum.ethGetCode(contractAddress, DefaultBlockParameterName.LATEST).sendAsync()
+                .whenComplete((ethGetCode, throwable) -> {
+                    if (throwable != null || ethGetCode.hasError()
+                            || Numeric.cleanHexPrefix(ethGetCode.getCode()).isEmpty()) {
+                        // Checked again on the next read, should it be deployed by then
+                        subscriptions.asMap().remove(contractAddress, subscription);
+                        return;
+                    }
+                    synchronized (subscription) {
+                        if (!subscription.removed) {
+                            subscription.disposable = tokenEvents.logs(contractAddress)
+                                    .onBackpressureBuffer()
+                                    .subscribe(this::evict, error -> {
+                                        log.warn("Token events for {} failed, dropping cached "
+                                                + "values", contractAddress, error);
+                                        subscriptions.asMap()
+                                                .remove(contractAddress, subscription);
+                                    });
+                        }
+                    }
+                });
+    }
+
+    private void unsubscribe(RemovalNotification<String, Subscription> notification) {
+        Subscription subscription = notification.getValue();
+        synchronized (subscription) {
+            subscription.removed = true;
+            if (subscription.disposable != null) {
+                subscription.disposable.dispose();
+            }
+        }
+        invalidate(notification.getKey());
+    }
+
+    private void evict(Log log) {
+        IndexedEvent.Type type = TokenLogs.type(log);
+        if (type == null) {
+            return;
+        }
+        String contractAddress = TokenEvents.normalise(log.getAddress());
+        Subscription subscription = subscriptions.getIfPresent(contractAddress);
+        if (subscription != null && log.getBlockNumber() != null) {
+            subscription.changedBlock.accumulateAndGet(log.getBlockNumber(),
+                    (current, update) -> current == null ? update : current.max(update));
+        }
+
+        String first = TokenLogs.from(log);
+        String second = TokenLogs.to(log);
+        if (type == IndexedEvent.Type.TRANSFER) {
+            // transferFrom also spends an allowance of the sender, so drop them all
+            owners.invalidate(new OwnerKey(contractAddress, first));
+            owners.invalidate(new OwnerKey(contractAddress, second));
+        } else {
+            OwnerEntry ownerEntry = owners.getIfPresent(new OwnerKey(contractAddress, first));
+            if (ownerEntry != null) {
+                synchronized (ownerEntry) {
+                    ownerEntry.allowances.remove(second);
+                }
+            }
+        }
+    }
+
+    private void invalidate(String contractAddress) {
+        owners.asMap().keySet().removeIf(key -> key.contractAddress.equals(contractAddress));
+    }
+
+    /**
+     * A cached value, along with the block it was read at.
+     */
+    public static class CachedValue {
+        private final BigInteger value;
+        private final BigInteger blockNumber;
+
+        CachedValue(BigInteger value, BigInteger blockNumber) {
+            this.value = value;
+            this.blockNumber = blockNumber;
+        }
+
+        public BigInteger getValue() {
+            return value;
+        }
+
+        public BigInteger getBlockNumber() {
+            return blockNumber;
+        }
+    }
+
+    /**
+     * The block to read a value at, null if it can't be cached.
+     */
+    public static class Read {
+        private final BigInteger blockNumber;
+
+        Read(BigInteger blockNumber) {
+            this.blockNumber = blockNumber;
+        }
+
+        public BigInteger getBlockNumber() {
+            return blockNumber;
+        }
+
+        public DefaultBlockParameter getBlockParameter() {
+            return blockNumber == null
+                    ? DefaultBlockParameterName.LATEST : DefaultBlockParameter.valueOf(blockNumber);
+        }
+    }
+
+    private static class Subscription {
+        // The latest block we've seen a change to the token in
+        private final AtomicReference<BigInteger> changedBlock = new AtomicReference<>();
+        private final AtomicBoolean started = new AtomicBoolean();
+        // Guarded by the lock on this
+        private Disposable disposable;
+        private boolean removed;
+    }
+
+    private static class OwnerEntry {
+        private volatile CachedValue balance;
+        private final Map<String, CachedValue> allowances = new ConcurrentHashMap<>();
+    }
+
+    private static final class OwnerKey {
+        private final String contractAddress;
+        private final String ownerAddress;
+
+        OwnerKey(String contractAddress, String ownerAddress) {
+            this.contractAddress = TokenEvents.normalise(contractAddress);
+            this.ownerAddress = TokenEvents.normalise(ownerAddress);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            OwnerKey that = (OwnerKey) o;
+            return contractAddress.equals(that.contractAddress)
+                    && ownerAddress.equals(that.ownerAddress);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contractAddress, ownerAddress);
+        }
+    }
+}
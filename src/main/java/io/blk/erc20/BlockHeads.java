@@ -0,0 +1,109 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import javax.annotation.PreDestroy;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.quorum.Quorum;
+import org.web3j.utils.Numeric;
+
+/**
+ * The latest block of the node, pushed by a {@code newHeads} subscription when connected over
+ * WebSocket, and otherwise requested each time it's needed.
+ *
+ * <p>The pollers following the chain run on each new head rather than waiting for their next
+ * poll, and don't need to ask the node for its block number in between. If no head has been
+ * pushed for {@link NodeConfiguration#getEventPollInterval()}, such as while the subscription
+ * is lost, the node is asked again.
+ */
+@Component
+public class BlockHeads {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockHeads.class);
+
+    private final Quorum quorum;
+
+    private final FlowableProcessor<BigInteger> heads =
+            PublishProcessor.<BigInteger>create().toSerialized();
+
+    private final Disposable subscription;
+
+    private final long pollInterval;
+
+    private volatile Head latest;
+
+    @Autowired
+    public BlockHeads(Quorum quorum, NodeConfiguration nodeConfiguration) {
+        this.quorum = quorum;
+        this.pollInterval = nodeConfiguration.getEventPollInterval();
+        if (nodeConfiguration.getNodeEndpoints().isEmpty()
+                && ReconnectingWebSocketService.isWebSocket(nodeConfiguration.getNodeEndpoint())) {
+            this.subscription = quorum.newHeadsNotifications()
+                    .map(notification -> Numeric.decodeQuantity(
+                            notification.getParams().getResult().getNumber()))
+                    .subscribe(head -> {
+                        latest = new Head(head);
+                        heads.onNext(head);
+                    }, e -> log.warn("New heads subscription failed", e));
+        } else {
+            this.subscription = null;
+        }
+    }
+
+    public boolean isPushed() {
+        return subscription != null;
+    }
+
+    /**
+     * Each new head as it's pushed, which never emits unless {@link #isPushed()}.
+     */
+    public Flowable<BigInteger> heads() {
+        return heads;
+    }
+
+    /**
+     * The latest block, as last pushed if there has been one within the poll interval.
+     */
+    public BigInteger latest() throws IOException {
+        Head head = latest;
+        if (head != null && System.currentTimeMillis() - head.received <= pollInterval) {
+            return head.blockNumber;
+        }
+        EthBlockNumber ethBlockNumber = quorum.ethBlockNumber().send();
+        if (ethBlockNumber.hasError()) {
+            throw new RuntimeException(ethBlockNumber.getError().getMessage());
+        }
+        BigInteger blockNumber = ethBlockNumber.getBlockNumber();
+        Head current = latest;
+        if (isPushed() && (current == null || blockNumber.compareTo(current.blockNumber) >= 0)) {
+            // Good for another poll interval, unless a newer head is pushed first
+            latest = new Head(blockNumber);
+        }
+        return blockNumber;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private static class Head {
+        private final BigInteger blockNumber;
+        private final long received = System.currentTimeMillis();
+
+        Head(BigInteger blockNumber) {
+            this.blockNumber = blockNumber;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.blk.erc20;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Shares one call to the node between concurrent requests for the same read of a token, the
+ * same function and arguments at the same block, when
+ * {@link NodeConfiguration#isCoalesceCalls()} is enabled.
+ *
+ * <p>A call is only shared while in flight, each read once it has completed starts a new one.
+ * Calls to a token are no longer shared once we hold the receipt of a transaction changing it,
+ * so reads made after a transaction completes never see the state from before it.
+ *
+ * <p>The same counts as {@link #getStatistics()} are counted as {@code node.calls}, tagged with
+ * the function called and whether the call was coalesced into one already in flight.
+ */
+@Component
+public class CallCoalescer {
+
+    private final boolean enabled;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<CallKey, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder sentCalls = new LongAdder();
+
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    @Autowired
+    public CallCoalescer(NodeConfiguration nodeConfiguration, MeterRegistry meterRegistry) {
+        this.enabled = nodeConfiguration.isCoalesceCalls();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Make a call to a token, unless the same call is already in flight.
+     *
+     * @param functionName the function called, to count calls by
+     * @param data the calldata of the call, its function selector and arguments
+     * @param call makes the call to the node
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> call(
+            String contractAddress, String functionName, String data,
+            DefaultBlockParameter defaultBlockParameter, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        CallKey key = new CallKey(contractAddress, data, defaultBlockParameter.getValue());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, result);
+        if (existing != null) {
+            coalescedCalls.increment();
+            counter(functionName, true).increment();
+            return copy(existing);
+        }
+
+        sentCalls.increment();
+        counter(functionName, false).increment();
+        result.whenComplete((value, throwable) -> inFlight.remove(key, result));
+        try {
+            completeWith(result, call.get());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return copy(result);
+    }
+
+    /**
+     * Stop sharing the calls in flight to the tokens changed by the given logs, such as those
+     * of a receipt we hold.
+     */
+    public void forget(List<Log> logs) {
+        if (!enabled || inFlight.isEmpty()) {
+            return;
+        }
+        for (Log log : logs) {
+            if (log.getAddress() != null) {
+                String contractAddress = TokenEvents.normalise(log.getAddress());
+                inFlight.keySet().removeIf(key -> key.contractAddress.equals(contractAddress));
+            }
+        }
+    }
+
+    public CallStatistics getStatistics() {
+        return new CallStatistics(sentCalls.sum(), coalescedCalls.sum(), inFlight.size());
+    }
+
+    private Counter counter(String functionName, boolean coalesced) {
+        return Counter.builder("node.calls")
+                .tag("function", functionName)
+                .tag("coalesced", Boolean.toString(coalesced))
+                .register(meterRegistry);
+    }
+
+    /**
+     * A future completed along with the shared one, so callers can't complete or cancel it
+     * for the others.
+     */
+    private static <T> CompletableFuture<T> copy(CompletableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        completeWith(result, future);
+        return result;
+    }
+
+    private static <T> void completeWith(CompletableFuture<T> result, CompletableFuture<T> future) {
+        future.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    /**
+     * Number of calls sent to the node, and of those that instead shared one in flight.
+     */
+    public static class CallStatistics {
+        private final long sentCalls;
+        private final long coalescedCalls;
+        private final int inFlightCalls;
+
+        CallStatistics(long sentCalls, long coalescedCalls, int inFlightCalls) {
+            this.sentCalls = sentCalls;
+            this.coalescedCalls = coalescedCalls;
+            this.inFlightCalls = inFlightCalls;
+        }
+
+        public long getSentCalls() {
+            return sentCalls;
+        }
+
+        public long getCoalescedCalls() {
+            return coalescedCalls;
+        }
+
+        public int getInFlightCalls() {
+            return inFlightCalls;
+        }
+    }
+
+    private static final class CallKey {
+        private final String contractAddress;
+        private final String data;
+        private final String block;
+
+        CallKey(String contractAddress, String data, String block) {
+            this.contractAddress = TokenEvents.normalise(contractAddress);
+            this.data = data;
+            this.block = block;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CallKey that = (CallKey) o;
+            return contractAddress.equals(that.contractAddress)
+                    && data.equals(that.data)
+                    && block.equals(that.block);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contractAddress, data, block);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package io.blk.erc20;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import io.blk.erc20.generated.HumanStandardToken;
+import io.reactivex.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.quorum.Quorum;
+import org.web3j.quorum.tx.ClientTransactionManager;
+import org.web3j.tx.TransactionManager;
+import org.web3j.utils.Numeric;
+
+import static org.web3j.tx.Contract.GAS_LIMIT;
+import static org.web3j.tx.ManagedTransaction.GAS_PRICE;
+
+/**
+ * Bounded cache of loaded token contract wrappers, keyed by contract address and the
+ * normalised set of privateFor keys the wrapper transacts with, along with the transaction
+ * managers they share.
+ */
+@Component
+public class ContractCache {
+
+    private final Quorum quorum;
+
+    private final NodeConfiguration nodeConfiguration;
+
+    private final NonceManager nonceManager;
+
+    private final Cache<ContractKey, HumanStandardToken> contracts;
+
+    private final Cache<List<String>, TransactionManager> transactionManagers;
+
+    // Kept separately so counts survive eviction of the wrapper itself
+    private final Cache<ContractKey, KeyStatistics> statistics;
+
+    @Autowired
+    public ContractCache(
+            Quorum quorum, NodeConfiguration nodeConfiguration, NonceManager nonceManager) {
+        this.quorum = quorum;
+        this.nodeConfiguration = nodeConfiguration;
+        this.nonceManager = nonceManager;
+
+        long maximumSize = nodeConfiguration.getContractCacheSize();
+        this.statistics = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize * 10)
+                .build();
+        this.contracts = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .<ContractKey, HumanStandardToken>removalListener(notification -> {
+                    if (notification.getCause() == RemovalCause.SIZE) {
+                        statisticsFor(notification.getKey()).evictions.incrementAndGet();
+                    }
+                })
+                .build();
+        this.transactionManagers = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public HumanStandardToken get(String contractAddress, @Nullable List<String> privateFor) {
+        ContractKey key = new ContractKey(contractAddress, privateFor);
+        KeyStatistics keyStatistics = statisticsFor(key);
+
+        HumanStandardToken humanStandardToken = contracts.getIfPresent(key);
+        if (humanStandardToken != null) {
+            keyStatistics.hits.incrementAndGet();
+            return humanStandardToken;
+        }
+
+        keyStatistics.misses.incrementAndGet();
+        try {
+            return contracts.get(key, () -> load(key));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public TransactionManager transactionManager(@Nullable List<String> privateFor) {
+        List<String> key = normalise(privateFor);
+        try {
+            return transactionManagers.get(key, () -> nodeConfiguration.isLocalNonces()
+                    ? new NonceTransactionManager(
+                            quorum, nodeConfiguration.getFromAddress(),
+                            key.isEmpty() ? null : key, nonceManager)
+                    : new ClientTransactionManager(
+                            quorum, nodeConfiguration.getFromAddress(),
+                            key.isEmpty() ? null : key));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public List<ContractStatistics> getStatistics() {
+        List<ContractStatistics> result = new ArrayList<>();
+        for (Map.Entry<ContractKey, KeyStatistics> entry : statistics.asMap().entrySet()) {
+            ContractKey key = entry.getKey();
+            KeyStatistics keyStatistics = entry.getValue();
+            result.add(new ContractStatistics(
+                    key.contractAddress,
+                    key.privateFor,
+                    keyStatistics.hits.get(),
+                    keyStatistics.misses.get(),
+                    keyStatistics.evictions.get()));
+        }
+        return result;
+    }
+
+    private HumanStandardToken load(ContractKey key) {
+        return HumanStandardToken.load(
+                key.contractAddress, quorum, transactionManager(key.privateFor),
+                GAS_PRICE, GAS_LIMIT);
+    }
+
+    private static List<String> normalise(@Nullable List<String> privateFor) {
+        if (privateFor == null) {
+            return Collections.emptyList();
+        }
+        TreeSet<String> normalised = new TreeSet<>();
+        for (String key : privateFor) {
+            if (!key.trim().isEmpty()) {
+                normalised.add(key.trim());
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(normalised));
+    }
+
+    private KeyStatistics statisticsFor(ContractKey key) {
+        try {
+            return statistics.get(key, KeyStatistics::new);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static class KeyStatistics {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+    }
+
+    static final class ContractKey {
+        private final String contractAddress;
+        private final List<String> privateFor;
+
+        ContractKey(String contractAddress, @Nullable List<String> privateFor) {
+            this.contractAddress = Numeric.prependHexPrefix(contractAddress.trim()).toLowerCase();
+            this.privateFor = normalise(privateFor);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ContractKey that = (ContractKey) o;
+            return contractAddress.equals(that.contractAddress)
+                    && privateFor.equals(that.privateFor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contractAddress, privateFor);
+        }
+    }
+
+    /**
+     * Cache statistics for a single contract address and privateFor combination.
+     */
+    public static class ContractStatistics {
+        private final String contractAddress;
+        private final List<String> privateFor;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        ContractStatistics(
+                String contractAddress, List<String> privateFor,
+                long hits, long misses, long evictions) {
+            this.contractAddress = contractAddress;
+            this.privateFor = privateFor;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public String getContractAddress() {
+            return contractAddress;
+        }
+
+        public List<String> getPrivateFor() {
+            return privateFor;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+    }
+}
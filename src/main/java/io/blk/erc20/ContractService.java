@@ -1,12 +1,24 @@
 package io.blk.erc20;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import io.blk.erc20.NodeConfiguration.NodeEndpoint.Role;
 import io.blk.erc20.generated.HumanStandardToken;
+import io.blk.erc20.generated.HumanStandardTokenFactory;
 import io.reactivex.annotations.Nullable;
 import lombok.Getter;
 import lombok.Setter;
@@ -14,10 +26,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.RemoteCall;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.quorum.Quorum;
-import org.web3j.quorum.tx.ClientTransactionManager;
 import org.web3j.tx.TransactionManager;
+import org.web3j.tx.gas.StaticGasProvider;
 
 import static org.web3j.tx.Contract.GAS_LIMIT;
 import static org.web3j.tx.ManagedTransaction.GAS_PRICE;
@@ -32,197 +58,736 @@ public class ContractService {
 
     private final NodeConfiguration nodeConfiguration;
 
+    private final ContractCache contractCache;
+
+    private final TokenMetadataCache tokenMetadataCache;
+
+    private final JsonRpcBatch jsonRpcBatch;
+
+    private final BalanceCache balanceCache;
+
+    private final CallCoalescer callCoalescer;
+
+    private final HistoricalCache historicalCache;
+
+    private final ReceiptTracker receiptTracker;
+
+    private final NodePool nodePool;
+
+    private final VirtualThreads virtualThreads;
+
     @Autowired
-    public ContractService(Quorum quorum, NodeConfiguration nodeConfiguration) {
+    public ContractService(
+            Quorum quorum, NodeConfiguration nodeConfiguration, ContractCache contractCache,
+            TokenMetadataCache tokenMetadataCache, JsonRpcBatch jsonRpcBatch,
+            BalanceCache balanceCache, CallCoalescer callCoalescer,
+            HistoricalCache historicalCache, ReceiptTracker receiptTracker, NodePool nodePool,
+            VirtualThreads virtualThreads) {
         this.quorum = quorum;
         this.nodeConfiguration = nodeConfiguration;
+        this.contractCache = contractCache;
+        this.tokenMetadataCache = tokenMetadataCache;
+        this.jsonRpcBatch = jsonRpcBatch;
+        this.balanceCache = balanceCache;
+        this.callCoalescer = callCoalescer;
+        this.historicalCache = historicalCache;
+        this.receiptTracker = receiptTracker;
+        this.nodePool = nodePool;
+        this.virtualThreads = virtualThreads;
     }
 
     public NodeConfiguration getConfig() {
         return nodeConfiguration;
     }
 
-    public String deploy(
+    public CompletableFuture<String> deploy(
             List<String> privateFor, BigInteger initialAmount, String tokenName, BigInteger decimalUnits,
-            String tokenSymbol) throws Exception {
-        try {
-            TransactionManager transactionManager = new ClientTransactionManager(
-                    quorum, nodeConfiguration.getFromAddress(), privateFor);
-            HumanStandardToken humanStandardToken = HumanStandardToken.deploy(
-                    quorum, transactionManager, GAS_PRICE, GAS_LIMIT,
-                    initialAmount, tokenName, decimalUnits,
-                    tokenSymbol).send();
-            return humanStandardToken.getContractAddress();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+            String tokenSymbol) {
+        TransactionManager transactionManager = contractCache.transactionManager(privateFor);
+        return send(privateFor, HumanStandardToken.deploy(
+                quorum, transactionManager, GAS_PRICE, GAS_LIMIT,
+                initialAmount, tokenName, decimalUnits,
+                tokenSymbol))
+                .thenApply(humanStandardToken -> {
+                    String contractAddress = humanStandardToken.getContractAddress();
+                    if (isPrivate(privateFor)) {
+                        nodePool.privateContract(contractAddress);
+                    }
+                    tokenMetadataCache.deployed(
+                            contractAddress, tokenName, tokenSymbol, decimalUnits);
+                    return contractAddress;
+                });
+    }
+
+    /**
+     * Deploy many tokens in one transaction through the configured
+     * {@link HumanStandardTokenFactory}, each only costing its constructor arguments rather than
+     * the token's bytecode. As with the factory's own tokens, the initial amount is transferred
+     * from the factory to fromAddress.
+     *
+     * <p>All the tokens' constructors run in the one transaction, so its gas is estimated by the
+     * node rather than taken per token, and the whole batch has to fit in a block.
+     *
+     * @return the addresses of the new tokens, in the order given
+     */
+    public CompletableFuture<List<String>> deployBatch(
+            List<String> privateFor, List<BigInteger> initialAmounts, List<String> tokenNames,
+            List<BigInteger> decimalUnits, List<String> tokenSymbols) {
+        String tokenFactoryAddress = nodeConfiguration.getTokenFactoryAddress();
+        if (tokenFactoryAddress == null || tokenFactoryAddress.isEmpty()) {
+            throw new RuntimeException("Error processing request: no token factory configured");
         }
+
+        int count = initialAmounts.size();
+        HumanStandardTokenFactory tokenFactory = HumanStandardTokenFactory.load(
+                tokenFactoryAddress, quorum, contractCache.transactionManager(privateFor),
+                new StaticGasProvider(GAS_PRICE, GAS_LIMIT));
+        String data = FunctionEncoder.encode(TokenFunctions.createHumanStandardTokens(
+                initialAmounts, tokenNames, decimalUnits, tokenSymbols));
+        // Estimated on the node sending it, which for private tokens is the only one with the
+        // factory's private state
+        return send(privateFor, new RemoteCall<>(() -> {
+            tokenFactory.setGasProvider(new StaticGasProvider(
+                    GAS_PRICE, estimateGas(tokenFactoryAddress, data)));
+            return tokenFactory.createHumanStandardTokens(
+                    initialAmounts, tokenNames, decimalUnits, tokenSymbols).send();
+        }))
+                .thenApply(transactionReceipt -> {
+                    List<String> contractAddresses = new ArrayList<>(count);
+                    for (HumanStandardTokenFactory.HumanStandardTokenCreatedEventResponse
+                            response : tokenFactory.getHumanStandardTokenCreatedEvents(
+                                    transactionReceipt)) {
+                        contractAddresses.add(response._token);
+                    }
+                    if (contractAddresses.size() != count) {
+                        throw new RuntimeException(
+                                "Error processing transaction request: expected " + count
+                                        + " tokens to be created, but " + contractAddresses.size()
+                                        + " were");
+                    }
+                    for (int i = 0; i < count; i++) {
+                        if (isPrivate(privateFor)) {
+                            nodePool.privateContract(contractAddresses.get(i));
+                        }
+                        tokenMetadataCache.deployed(contractAddresses.get(i),
+                                tokenNames.get(i), tokenSymbols.get(i), decimalUnits.get(i));
+                    }
+                    return contractAddresses;
+                });
     }
 
-    public String name(String contractAddress) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress);
-        try {
-            return humanStandardToken.name().send();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    public CompletableFuture<String> name(String contractAddress) {
+        return tokenMetadataCache.name(
+                contractAddress, () -> send(load(contractAddress).name()));
+    }
+
+    public CompletableFuture<TransactionResponse<ApprovalEventResponse>> approve(
+            List<String> privateFor, String contractAddress, String spender, BigInteger value,
+            boolean waitForReceipt) {
+        String data = TokenCalldata.approve(spender, value);
+        if (!waitForReceipt) {
+            return submit(privateFor, contractAddress, data);
         }
+        return execute(privateFor, contractAddress, data)
+                .thenApply(this::processApprovalEventResponse);
     }
 
-    public TransactionResponse<ApprovalEventResponse> approve(
-            List<String> privateFor, String contractAddress, String spender, BigInteger value) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress, privateFor);
-        try {
-            TransactionReceipt transactionReceipt = humanStandardToken
-                    .approve(spender, value).send();
-            return processApprovalEventResponse(humanStandardToken, transactionReceipt);
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    /**
+     * Get the total supply, as of the given block or the latest one if null.
+     */
+    public CompletableFuture<String> totalSupply(
+            String contractAddress, @Nullable BigInteger blockNumber) {
+        if (blockNumber != null) {
+            return callUint256(
+                    contractAddress, HumanStandardToken.FUNC_TOTALSUPPLY,
+                    TokenCalldata.TOTAL_SUPPLY, blockNumber)
+                    .thenApply(BigInteger::toString);
         }
+        return callUint256(
+                contractAddress, HumanStandardToken.FUNC_TOTALSUPPLY, TokenCalldata.TOTAL_SUPPLY,
+                DefaultBlockParameterName.LATEST)
+                .thenApply(BigInteger::toString);
     }
 
-    public String totalSupply(String contractAddress) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress);
-        try {
-            return humanStandardToken.totalSupply().send().toString();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    public CompletableFuture<TransactionResponse<TransferEventResponse>> transferFrom(
+            List<String> privateFor, String contractAddress, String from, String to, BigInteger value,
+            boolean waitForReceipt) {
+        String data = TokenCalldata.transferFrom(from, to, value);
+        if (!waitForReceipt) {
+            return submit(privateFor, contractAddress, data);
         }
+        return execute(privateFor, contractAddress, data)
+                .thenApply(this::processTransferEventsResponse);
     }
 
-    public TransactionResponse<TransferEventResponse> transferFrom(
-            List<String> privateFor, String contractAddress, String from, String to, BigInteger value) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress, privateFor);
-        try {
-            TransactionReceipt transactionReceipt = humanStandardToken
-                    .transferFrom(from, to, value).send();
-            return processTransferEventsResponse(humanStandardToken, transactionReceipt);
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    public CompletableFuture<String> decimals(String contractAddress) {
+        return tokenMetadataCache.decimals(
+                contractAddress, () -> send(load(contractAddress).decimals()))
+                .thenApply(BigInteger::toString);
+    }
+
+    public CompletableFuture<String> version(String contractAddress) {
+        return tokenMetadataCache.version(
+                contractAddress, () -> send(load(contractAddress).version()));
+    }
+
+    /**
+     * Get the balance of an owner, as of the given block or the latest one if null.
+     */
+    public CompletableFuture<String> balanceOf(
+            String contractAddress, String ownerAddress, @Nullable BigInteger blockNumber) {
+        if (blockNumber != null) {
+            return callUint256(
+                    contractAddress, HumanStandardToken.FUNC_BALANCEOF,
+                    TokenCalldata.balanceOf(ownerAddress), blockNumber)
+                    .thenApply(BigInteger::toString);
         }
+
+        BalanceCache.CachedValue cached = balanceCache.balance(contractAddress, ownerAddress);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.getValue().toString());
+        }
+
+        BalanceCache.Read read = balanceCache.read(contractAddress);
+        return callUint256(
+                contractAddress, HumanStandardToken.FUNC_BALANCEOF,
+                TokenCalldata.balanceOf(ownerAddress), read.getBlockParameter())
+                .thenApply(balance -> {
+                    balanceCache.putBalance(contractAddress, ownerAddress, read, balance);
+                    return balance.toString();
+                });
     }
 
-    public String decimals(String contractAddress) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress);
-        try {
-            return humanStandardToken.decimals().send().toString();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    /**
+     * Get the balances of many owners, sent to the node as JSON-RPC batches of
+     * {@link NodeConfiguration#getBatchSize()} calls, with up to
+     * {@link NodeConfiguration#getBatchParallelism()} batches in flight at once.
+     */
+    public CompletableFuture<Map<String, String>> balances(
+            String contractAddress, List<String> ownerAddresses) {
+        int batchSize = Math.max(1, nodeConfiguration.getBatchSize());
+        int parallelism = Math.max(1, nodeConfiguration.getBatchParallelism());
+
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < ownerAddresses.size(); i += batchSize) {
+            batches.add(ownerAddresses.subList(
+                    i, Math.min(i + batchSize, ownerAddresses.size())));
         }
+
+        // Each lane sends its batches one after another, so at most parallelism are in flight
+        Map<String, String> balances = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> lanes = new ArrayList<>(parallelism);
+        for (int lane = 0; lane < Math.min(parallelism, batches.size()); lane++) {
+            CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+            for (int i = lane; i < batches.size(); i += parallelism) {
+                List<String> batch = batches.get(i);
+                previous = previous.thenCompose(ignored -> balanceBatch(contractAddress, batch)
+                        .thenAccept(balances::putAll));
+            }
+            lanes.add(previous);
+        }
+
+        return CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<String, String> result = new LinkedHashMap<>();
+                    for (String ownerAddress : ownerAddresses) {
+                        result.put(ownerAddress, balances.get(ownerAddress));
+                    }
+                    return result;
+                });
     }
 
-    public String version(String contractAddress) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress);
-        try {
-            return humanStandardToken.version().send();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    /**
+     * Get all of a token's details, read in a single JSON-RPC batch pinned to the latest block
+     * so the values are consistent with each other.
+     */
+    public CompletableFuture<TokenSummary> summary(String contractAddress) {
+        return blockNumber().thenCompose(blockNumber -> {
+            DefaultBlockParameter block = DefaultBlockParameter.valueOf(blockNumber);
+
+            List<org.web3j.abi.datatypes.Function> functions = Arrays.asList(
+                    TokenFunctions.name(),
+                    TokenFunctions.symbol(),
+                    TokenFunctions.decimals(),
+                    TokenFunctions.version(),
+                    TokenFunctions.totalSupply());
+            List<Request<?, EthCall>> requests = new ArrayList<>(functions.size());
+            for (org.web3j.abi.datatypes.Function function : functions) {
+                requests.add(callRequest(contractAddress, function, block));
+            }
+
+            return jsonRpcBatch.sendAsync(requests, EthCall.class).thenApply(responses -> {
+                TokenSummary tokenSummary = new TokenSummary(contractAddress, blockNumber);
+                tokenSummary.setName(decodeSingleValue(responses.get(0), functions.get(0)));
+                tokenSummary.setSymbol(decodeSingleValue(responses.get(1), functions.get(1)));
+                tokenSummary.setDecimals(decodeSingleValue(responses.get(2), functions.get(2)));
+                tokenSummary.setVersion(decodeSingleValue(responses.get(3), functions.get(3)));
+                tokenSummary.setTotalSupply(
+                        decodeSingleValue(responses.get(4), functions.get(4)));
+                return tokenSummary;
+            });
+        });
+    }
+
+    public CompletableFuture<String> symbol(String contractAddress) {
+        return tokenMetadataCache.symbol(
+                contractAddress, () -> send(load(contractAddress).symbol()));
+    }
+
+    public CompletableFuture<TransactionResponse<TransferEventResponse>> transfer(
+            List<String> privateFor, String contractAddress, String to, BigInteger value,
+            boolean waitForReceipt) {
+        String data = TokenCalldata.transfer(to, value);
+        if (!waitForReceipt) {
+            return submit(privateFor, contractAddress, data);
         }
+        return execute(privateFor, contractAddress, data)
+                .thenApply(this::processTransferEventsResponse);
     }
 
-    public String balanceOf(String contractAddress, String ownerAddress) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress);
-        try {
-            return humanStandardToken.balanceOf(ownerAddress).send().toString();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    /**
+     * Submit many transfers back to back, on up to {@link NodeConfiguration#getBatchParallelism()}
+     * connections, without waiting for the receipt of one before sending the next. Each entry
+     * succeeds or fails on its own, results are returned in the order given.
+     */
+    public CompletableFuture<List<TransferResult>> transfers(
+            @Nullable List<String> privateFor, String contractAddress, List<Transfer> transfers,
+            boolean waitForReceipt) {
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[
+                Math.max(1, Math.min(nodeConfiguration.getBatchParallelism(), transfers.size()))];
+        Arrays.fill(lanes, CompletableFuture.completedFuture(null));
+
+        List<CompletableFuture<TransferResult>> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            Transfer transfer = transfers.get(i);
+            String data = transfer.getFrom() == null
+                    ? TokenCalldata.transfer(transfer.getTo(), transfer.getValue())
+                    : TokenCalldata.transferFrom(
+                            transfer.getFrom(), transfer.getTo(), transfer.getValue());
+
+            // A failed submission doesn't hold up the rest of its lane
+            int lane = i % lanes.length;
+            CompletableFuture<TransactionResponse<TransferEventResponse>> submitted = lanes[lane]
+                    .handle((ignored, throwable) -> null)
+                    .thenCompose(ignored -> submit(privateFor, contractAddress, data));
+            lanes[lane] = submitted;
+
+            // Once sent, a failure keeps the hash so the transfer isn't taken as never sent
+            CompletableFuture<TransferResult> result = waitForReceipt
+                    ? submitted.thenCompose(transactionResponse ->
+                            receipt(transactionResponse.getTransactionHash())
+                                    .thenApply(this::processTransferEventsResponse)
+                                    .thenApply(TransferResult::new)
+                                    .exceptionally(throwable -> TransferResult.failed(
+                                            transactionResponse.getTransactionHash(),
+                                            rootCause(throwable).getMessage())))
+                    : submitted.thenApply(TransferResult::new);
+            results.add(result.exceptionally(
+                    throwable -> TransferResult.failed(rootCause(throwable).getMessage())));
         }
+
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> results.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
     }
 
-    public String symbol(String contractAddress) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress);
-        try {
-            return humanStandardToken.symbol().send();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    public CompletableFuture<TransactionResponse<ApprovalEventResponse>> approveAndCall(
+            @Nullable List<String> privateFor, String contractAddress, String spender, BigInteger value,
+            String extraData, boolean waitForReceipt) {
+        String data = FunctionEncoder.encode(
+                TokenFunctions.approveAndCall(spender, value, extraData.getBytes()));
+        if (!waitForReceipt) {
+            return submit(privateFor, contractAddress, data);
         }
+        return execute(privateFor, contractAddress, data)
+                .thenApply(this::processApprovalEventResponse);
     }
 
-    public TransactionResponse<TransferEventResponse> transfer(
-            List<String> privateFor, String contractAddress, String to, BigInteger value) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress, privateFor);
-        try {
-            TransactionReceipt transactionReceipt = humanStandardToken
-                    .transfer(to, value).send();
-            return processTransferEventsResponse(humanStandardToken, transactionReceipt);
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    /**
+     * Get the allowance of a spender, as of the given block or the latest one if null.
+     */
+    public CompletableFuture<String> allowance(
+            String contractAddress, String ownerAddress, String spenderAddress,
+            @Nullable BigInteger blockNumber) {
+        if (blockNumber != null) {
+            return callUint256(
+                    contractAddress, HumanStandardToken.FUNC_ALLOWANCE,
+                    TokenCalldata.allowance(ownerAddress, spenderAddress), blockNumber)
+                    .thenApply(BigInteger::toString);
+        }
+
+        BalanceCache.CachedValue cached =
+                balanceCache.allowance(contractAddress, ownerAddress, spenderAddress);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.getValue().toString());
         }
+
+        BalanceCache.Read read = balanceCache.read(contractAddress);
+        return callUint256(
+                contractAddress, HumanStandardToken.FUNC_ALLOWANCE,
+                TokenCalldata.allowance(ownerAddress, spenderAddress),
+                read.getBlockParameter())
+                .thenApply(allowance -> {
+                    balanceCache.putAllowance(
+                            contractAddress, ownerAddress, spenderAddress, read, allowance);
+                    return allowance.toString();
+                });
     }
 
-    public TransactionResponse<ApprovalEventResponse> approveAndCall(
-            @Nullable List<String> privateFor, String contractAddress, String spender, BigInteger value,
-            String extraData) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress, privateFor);
+    public CompletableFuture<TransactionStatus> transactionStatus(String transactionHash) {
+        return send(new RemoteCall<>(() -> {
+            EthGetTransactionReceipt ethGetTransactionReceipt =
+                    quorum.ethGetTransactionReceipt(transactionHash).send();
+            if (ethGetTransactionReceipt.hasError()) {
+                throw new RuntimeException(
+                        "Error retrieving transaction receipt: "
+                                + ethGetTransactionReceipt.getError().getMessage());
+            }
+
+            Optional<TransactionReceipt> transactionReceipt =
+                    ethGetTransactionReceipt.getTransactionReceipt();
+            if (transactionReceipt.isPresent()) {
+                return processTransactionStatus(transactionReceipt.get());
+            } else if (quorum.ethGetTransactionByHash(transactionHash).send()
+                    .getTransaction().isPresent()) {
+                return new TransactionStatus(transactionHash, TransactionStatus.Status.PENDING);
+            } else {
+                return new TransactionStatus(transactionHash, TransactionStatus.Status.UNKNOWN);
+            }
+        }));
+    }
+
+    public List<ContractCache.ContractStatistics> contractCacheStatistics() {
+        return contractCache.getStatistics();
+    }
+
+    public CallCoalescer.CallStatistics callStatistics() {
+        return callCoalescer.getStatistics();
+    }
+
+    /**
+     * Send a call to the node, without blocking the caller if
+     * {@link NodeConfiguration#isAsyncRequests()} is enabled, on a virtual thread if
+     * {@link NodeConfiguration#isVirtualThreads()} is.
+     */
+    private <T> CompletableFuture<T> send(RemoteCall<T> remoteCall) {
+        if (nodeConfiguration.isAsyncRequests()) {
+            return virtualThreads.isEnabled()
+                    ? virtualThreads.sendAsync(remoteCall) : remoteCall.sendAsync();
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
         try {
-            TransactionReceipt transactionReceipt = humanStandardToken
-                    .approveAndCall(
-                            spender, value,
-                            extraData.getBytes())
-                    .send();
-            return processApprovalEventResponse(humanStandardToken, transactionReceipt);
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+            result.complete(remoteCall.send());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
         }
+        return result;
     }
 
-    public String allowance(String contractAddress, String ownerAddress, String spenderAddress) throws Exception {
-        HumanStandardToken humanStandardToken = load(contractAddress);
-        try {
-            return humanStandardToken.allowance(
-                    ownerAddress, spenderAddress)
-                    .send().toString();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+    /**
+     * Send a call which waits for its transaction to be mined, reading the receipt from the
+     * write node if the transaction is private, as only the nodes party to it have its logs.
+     */
+    private <T> CompletableFuture<T> send(
+            @Nullable List<String> privateFor, RemoteCall<T> remoteCall) {
+        if (!isPrivate(privateFor)) {
+            return send(remoteCall);
+        }
+        return send(new RemoteCall<>(() -> {
+            try (NodePool.Pin pin = nodePool.pin(Role.WRITE)) {
+                return remoteCall.send();
+            }
+        }));
+    }
+
+    private CompletableFuture<Map<String, String>> balanceBatch(
+            String contractAddress, List<String> ownerAddresses) {
+        List<Request<?, EthCall>> requests = new ArrayList<>(ownerAddresses.size());
+        for (String ownerAddress : ownerAddresses) {
+            requests.add(callRequest(contractAddress, TokenCalldata.balanceOf(ownerAddress),
+                    DefaultBlockParameterName.LATEST));
         }
+
+        return jsonRpcBatch.sendAsync(requests, EthCall.class).thenApply(responses -> {
+            Map<String, String> result = new HashMap<>();
+            for (int i = 0; i < responses.size(); i++) {
+                BigInteger balance =
+                        decodeUint256(responses.get(i), HumanStandardToken.FUNC_BALANCEOF);
+                result.put(ownerAddresses.get(i), balance.toString());
+            }
+            return result;
+        });
+    }
+
+    private CompletableFuture<BigInteger> blockNumber() {
+        return send(new RemoteCall<>(() -> {
+            EthBlockNumber ethBlockNumber = quorum.ethBlockNumber().send();
+            if (ethBlockNumber.hasError()) {
+                throw new RuntimeException(
+                        "Error retrieving block number: " + ethBlockNumber.getError().getMessage());
+            }
+            return ethBlockNumber.getBlockNumber();
+        }));
     }
 
-    private HumanStandardToken load(String contractAddress, List<String> privateFor) {
-        TransactionManager transactionManager = new ClientTransactionManager(
-                quorum, nodeConfiguration.getFromAddress(), privateFor);
-        return HumanStandardToken.load(
-                contractAddress, quorum, transactionManager, GAS_PRICE, GAS_LIMIT);
+    /**
+     * Call a function returning a {@code uint256}, given its calldata from
+     * {@link TokenCalldata}, sharing the call with any identical one in flight.
+     */
+    private CompletableFuture<BigInteger> callUint256(
+            String contractAddress, String functionName, String data,
+            DefaultBlockParameter defaultBlockParameter) {
+        return callCoalescer.call(
+                contractAddress, functionName, data, defaultBlockParameter, () -> {
+                    Request<?, EthCall> request =
+                            callRequest(contractAddress, data, defaultBlockParameter);
+                    return send(new RemoteCall<>(
+                            () -> decodeUint256(request.send(), functionName)));
+                });
+    }
+
+    /**
+     * Call a function returning a {@code uint256} as of a past block, served from the
+     * {@link HistoricalCache} once the block is final.
+     */
+    private CompletableFuture<BigInteger> callUint256(
+            String contractAddress, String functionName, String data, BigInteger blockNumber) {
+        BigInteger cached = historicalCache.get(contractAddress, data, blockNumber);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return callUint256(
+                contractAddress, functionName, data, DefaultBlockParameter.valueOf(blockNumber))
+                .thenCompose(value -> {
+                    if (!historicalCache.isEnabled() || historicalCache.isFinal(blockNumber)) {
+                        historicalCache.put(contractAddress, data, blockNumber, value);
+                        return CompletableFuture.completedFuture(value);
+                    }
+                    // Only cache the value if the latest block shows it's final, and return
+                    // it regardless
+                    return blockNumber().handle((head, throwable) -> {
+                        if (head != null) {
+                            historicalCache.head(head);
+                            historicalCache.put(contractAddress, data, blockNumber, value);
+                        }
+                        return value;
+                    });
+                });
+    }
+
+    private Request<?, EthCall> callRequest(
+            String contractAddress, org.web3j.abi.datatypes.Function function,
+            DefaultBlockParameter defaultBlockParameter) {
+        return callRequest(
+                contractAddress, FunctionEncoder.encode(function), defaultBlockParameter);
+    }
+
+    private Request<?, EthCall> callRequest(
+            String contractAddress, String data, DefaultBlockParameter defaultBlockParameter) {
+        return quorum.ethCall(
+                Transaction.createEthCallTransaction(
+                        nodeConfiguration.getFromAddress(), contractAddress, data),
+                defaultBlockParameter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T decodeSingleValue(
+            EthCall ethCall, org.web3j.abi.datatypes.Function function) {
+        if (ethCall.hasError()) {
+            throw new RuntimeException(
+                    "Error processing call: " + ethCall.getError().getMessage());
+        }
+        List<Type> values = FunctionReturnDecoder.decode(
+                ethCall.getValue(), function.getOutputParameters());
+        if (values.isEmpty()) {
+            throw new RuntimeException(
+                    "Empty value returned from " + function.getName() + " call");
+        }
+        return (T) values.get(0).getValue();
+    }
+
+    private static BigInteger decodeUint256(EthCall ethCall, String functionName) {
+        if (ethCall.hasError()) {
+            throw new RuntimeException(
+                    "Error processing call: " + ethCall.getError().getMessage());
+        }
+        BigInteger value = TokenCalldata.decodeUint256(ethCall.getValue());
+        if (value == null) {
+            throw new RuntimeException("Empty value returned from " + functionName + " call");
+        }
+        return value;
+    }
+
+    private BigInteger estimateGas(String contractAddress, String data) throws IOException {
+        EthEstimateGas ethEstimateGas = quorum.ethEstimateGas(
+                Transaction.createEthCallTransaction(
+                        nodeConfiguration.getFromAddress(), contractAddress, data)).send();
+        if (ethEstimateGas.hasError()) {
+            throw new RuntimeException(
+                    "Error processing transaction request: "
+                            + ethEstimateGas.getError().getMessage());
+        }
+        return ethEstimateGas.getAmountUsed();
+    }
+
+    /**
+     * Submit a transaction, returning as soon as the node has accepted it.
+     */
+    private <T> CompletableFuture<TransactionResponse<T>> submit(
+            List<String> privateFor, String contractAddress, String data) {
+        TransactionManager transactionManager = contractCache.transactionManager(privateFor);
+        return send(new RemoteCall<>(() -> {
+            EthSendTransaction ethSendTransaction = transactionManager.sendTransaction(
+                    GAS_PRICE, GAS_LIMIT, contractAddress, data, BigInteger.ZERO);
+            if (ethSendTransaction.hasError()) {
+                throw new RuntimeException(
+                        "Error processing transaction request: "
+                                + ethSendTransaction.getError().getMessage());
+            }
+            if (isPrivate(privateFor)) {
+                // Later reads go to the node that sent it, as other nodes may not be party to it
+                nodePool.privateContract(contractAddress);
+                nodePool.privateTransaction(ethSendTransaction.getTransactionHash());
+            }
+            return new TransactionResponse<>(ethSendTransaction.getTransactionHash());
+        }));
+    }
+
+    /**
+     * Submit a transaction, completing with its receipt once mined, which the
+     * {@link ReceiptTracker} polls for along with those of all other pending transactions.
+     */
+    private CompletableFuture<TransactionReceipt> execute(
+            List<String> privateFor, String contractAddress, String data) {
+        return submit(privateFor, contractAddress, data)
+                .thenCompose(transactionResponse ->
+                        receipt(transactionResponse.getTransactionHash()));
+    }
+
+    private CompletableFuture<TransactionReceipt> receipt(String transactionHash) {
+        return receiptTracker.receipt(transactionHash)
+                .thenApply(transactionReceipt -> {
+                    if (!transactionReceipt.isStatusOK()) {
+                        throw new RuntimeException(
+                                "Transaction has failed with status: "
+                                        + transactionReceipt.getStatus()
+                                        + ". Gas used: " + transactionReceipt.getGasUsed()
+                                        + ". (not-enough gas?)");
+                    }
+                    return transactionReceipt;
+                });
+    }
+
+    private static boolean isPrivate(@Nullable List<String> privateFor) {
+        if (privateFor != null) {
+            for (String key : privateFor) {
+                if (!key.trim().isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
     }
 
     private HumanStandardToken load(String contractAddress) {
-        TransactionManager transactionManager = new ClientTransactionManager(
-                quorum, nodeConfiguration.getFromAddress(), Collections.emptyList());
-        return HumanStandardToken.load(
-                contractAddress, quorum, transactionManager, GAS_PRICE, GAS_LIMIT);
+        return contractCache.get(contractAddress, Collections.emptyList());
     }
 
     private TransactionResponse<ApprovalEventResponse>
-            processApprovalEventResponse(
-            HumanStandardToken humanStandardToken,
-            TransactionReceipt transactionReceipt) {
+            processApprovalEventResponse(TransactionReceipt transactionReceipt) {
 
+        balanceCache.evict(transactionReceipt.getLogs());
+        callCoalescer.forget(transactionReceipt.getLogs());
         return processEventResponse(
-                humanStandardToken.getApprovalEvents(transactionReceipt),
-                transactionReceipt,
-                ApprovalEventResponse::new);
+                events(transactionReceipt, IndexedEvent.Type.APPROVAL, ApprovalEventResponse::new),
+                transactionReceipt);
     }
 
     private TransactionResponse<TransferEventResponse>
-            processTransferEventsResponse(
-            HumanStandardToken humanStandardToken,
-            TransactionReceipt transactionReceipt) {
+            processTransferEventsResponse(TransactionReceipt transactionReceipt) {
 
+        balanceCache.evict(transactionReceipt.getLogs());
+        callCoalescer.forget(transactionReceipt.getLogs());
         return processEventResponse(
-                humanStandardToken.getTransferEvents(transactionReceipt),
-                transactionReceipt,
-                TransferEventResponse::new);
+                events(transactionReceipt, IndexedEvent.Type.TRANSFER, TransferEventResponse::new),
+                transactionReceipt);
+    }
+
+    private TransactionStatus processTransactionStatus(TransactionReceipt transactionReceipt) {
+        TransactionStatus transactionStatus = new TransactionStatus(
+                transactionReceipt.getTransactionHash(),
+                transactionReceipt.isStatusOK()
+                        ? TransactionStatus.Status.SUCCESS : TransactionStatus.Status.FAILED);
+        transactionStatus.setBlockNumber(transactionReceipt.getBlockNumber());
+        transactionStatus.setTransferEvents(
+                events(transactionReceipt, IndexedEvent.Type.TRANSFER, TransferEventResponse::new));
+        transactionStatus.setApprovalEvents(
+                events(transactionReceipt, IndexedEvent.Type.APPROVAL, ApprovalEventResponse::new));
+        return transactionStatus;
     }
 
-    private <T, R> TransactionResponse<R> processEventResponse(
-            List<T> eventResponses, TransactionReceipt transactionReceipt, Function<T, R> map) {
+    /**
+     * The Transfer or Approval events of a receipt, decoded by {@link TokenLogs}.
+     */
+    private static <R> List<R> events(
+            TransactionReceipt transactionReceipt, IndexedEvent.Type type, Function<Log, R> map) {
+        List<R> events = new ArrayList<>();
+        for (Log log : transactionReceipt.getLogs()) {
+            if (TokenLogs.type(log) == type) {
+                events.add(map.apply(log));
+            }
+        }
+        return events;
+    }
+
+    private <R> TransactionResponse<R> processEventResponse(
+            List<R> eventResponses, TransactionReceipt transactionReceipt) {
         if (!eventResponses.isEmpty()) {
             return new TransactionResponse<>(
-                    transactionReceipt.getTransactionHash(),
-                    map.apply(eventResponses.get(0)));
+                    transactionReceipt.getTransactionHash(), eventResponses.get(0));
         } else {
             return new TransactionResponse<>(
                     transactionReceipt.getTransactionHash());
         }
     }
 
+    /**
+     * A transfer of a bulk request, from our own account unless from is given.
+     */
+    public static class Transfer {
+        private final String from;
+        private final String to;
+        private final BigInteger value;
+
+        public Transfer(@Nullable String from, String to, BigInteger value) {
+            this.from = from;
+            this.to = to;
+            this.value = value;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public BigInteger getValue() {
+            return value;
+        }
+    }
+
     @Getter
     @Setter
     public static class TransferEventResponse {
@@ -239,6 +804,12 @@ public class ContractService {
             this.value = transferEventResponse._value.longValueExact();
         }
 
+        TransferEventResponse(Log log) {
+            this.from = TokenLogs.from(log);
+            this.to = TokenLogs.to(log);
+            this.value = TokenLogs.value(log).longValueExact();
+        }
+
         public String getFrom() {
             return from;
         }
@@ -280,6 +851,12 @@ public class ContractService {
             this.value = approvalEventResponse._value.longValueExact();
         }
 
+        ApprovalEventResponse(Log log) {
+            this.owner = TokenLogs.from(log);
+            this.spender = TokenLogs.to(log);
+            this.value = TokenLogs.value(log).longValueExact();
+        }
+
         public String getOwner() {
             return owner;
         }
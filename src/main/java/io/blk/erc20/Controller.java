@@ -1,9 +1,14 @@
 package io.blk.erc20;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 
 import io.reactivex.annotations.Nullable;
@@ -12,6 +17,8 @@ import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiOperation;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,19 +26,39 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.web3j.crypto.WalletUtils;
 
 /**
  * Controller for our ERC-20 contract API.
+ *
+ * @see ReactiveController
  */
 @Api("ERC-20 token standard API")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class Controller {
 
     private final ContractService ContractService;
 
+    private final EventIndex eventIndex;
+
+    private final EventStreams eventStreams;
+
+    private final NodeHttpClient nodeHttpClient;
+
+    private final NodePool nodePool;
+
     @Autowired
-    public Controller(ContractService ContractService) {
+    public Controller(
+            ContractService ContractService, EventIndex eventIndex, EventStreams eventStreams,
+            NodeHttpClient nodeHttpClient, NodePool nodePool) {
         this.ContractService = ContractService;
+        this.eventIndex = eventIndex;
+        this.eventStreams = eventStreams;
+        this.nodeHttpClient = nodeHttpClient;
+        this.nodePool = nodePool;
     }
 
     @ApiOperation("Application configuration")
@@ -41,6 +68,34 @@ public class Controller {
         return ContractService.getConfig();
     }
 
+    @ApiOperation("Contract wrapper cache statistics")
+    @RequestMapping(value = "/stats/contracts", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    List<ContractCache.ContractStatistics> contractStatistics() {
+        return ContractService.contractCacheStatistics();
+    }
+
+    @ApiOperation("Calls to the node sent, and shared between identical concurrent reads")
+    @RequestMapping(value = "/stats/calls", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    CallCoalescer.CallStatistics callStatistics() {
+        return ContractService.callStatistics();
+    }
+
+    @ApiOperation("Node HTTP connection pool statistics")
+    @RequestMapping(value = "/stats/http", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    NodeHttpClient.HttpClientStatistics httpStatistics() {
+        return nodeHttpClient.getStatistics();
+    }
+
+    @ApiOperation("Health and load of each node, when several are configured")
+    @RequestMapping(value = "/stats/nodes", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    List<NodePool.NodeStatistics> nodeStatistics() {
+        return nodePool.getStatistics();
+    }
+
     @ApiOperation(
             value = "Deploy new ERC-20 token",
             notes = "Returns hex encoded contract address")
@@ -50,9 +105,9 @@ public class Controller {
             paramType = "header",
             dataType = "string")
     @RequestMapping(value = "/deploy", method = RequestMethod.POST)
-    String deploy(
+    CompletableFuture<String> deploy(
             HttpServletRequest request,
-            @RequestBody ContractSpecification contractSpecification) throws Exception {
+            @RequestBody ContractSpecification contractSpecification) {
 
         return ContractService.deploy(
                 extractPrivateFor(request),
@@ -62,136 +117,277 @@ public class Controller {
                 contractSpecification.getTokenSymbol());
     }
 
+    @ApiOperation(
+            value = "Deploy many new ERC-20 tokens in one transaction",
+            notes = "Returns hex encoded contract addresses in the order given, created by the "
+                    + "configured tokenFactoryAddress. Batches are limited to "
+                    + "tokenFactoryBatchSize tokens, each with every field given")
+    @ApiImplicitParam(name = "privateFor",
+            value = "Comma separated list of public keys of enclave nodes that transaction is "
+                    + "private for",
+            paramType = "header",
+            dataType = "string")
+    @RequestMapping(value = "/deploy/batch", method = RequestMethod.POST)
+    CompletableFuture<List<String>> deployBatch(
+            HttpServletRequest request,
+            @RequestBody List<ContractSpecification> contractSpecifications) {
+
+        validateBatch(contractSpecifications,
+                ContractService.getConfig().getTokenFactoryBatchSize());
+        return ContractService.deployBatch(
+                extractPrivateFor(request),
+                map(contractSpecifications, ContractSpecification::getInitialAmount),
+                map(contractSpecifications, ContractSpecification::getTokenName),
+                map(contractSpecifications, ContractSpecification::getDecimalUnits),
+                map(contractSpecifications, ContractSpecification::getTokenSymbol));
+    }
+
     @ApiOperation("Get token name")
     @RequestMapping(value = "/{contractAddress}/name", method = RequestMethod.GET)
-    String name(@PathVariable String contractAddress) throws Exception {
+    CompletableFuture<String> name(@PathVariable String contractAddress) {
         return ContractService.name(contractAddress);
     }
 
     @ApiOperation(
             value = "Approve transfers by a specific address up to the provided total quantity",
-            notes = "Returns hex encoded transaction hash, and Approval event if called")
+            notes = "Returns hex encoded transaction hash, and Approval event if called. With "
+                    + "waitForReceipt=false only the hash is returned once the node accepts it")
     @ApiImplicitParam(name = "privateFor",
             value = "Comma separated list of public keys of enclave nodes that transaction is "
                     + "private for",
             paramType = "header",
             dataType = "string")
     @RequestMapping(value = "/{contractAddress}/approve", method = RequestMethod.POST)
-    TransactionResponse<ContractService.ApprovalEventResponse> approve(
+    CompletableFuture<TransactionResponse<ContractService.ApprovalEventResponse>> approve(
             HttpServletRequest request,
             @PathVariable String contractAddress,
-            @RequestBody ApproveRequest approveRequest) throws Exception {
+            @RequestBody ApproveRequest approveRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
         return ContractService.approve(
                 extractPrivateFor(request),
                 contractAddress,
                 approveRequest.getSpender(),
-                approveRequest.getValue());
+                approveRequest.getValue(),
+                waitForReceipt);
     }
 
-    @ApiOperation("Get total supply of tokens")
+    @ApiOperation(
+            value = "Get total supply of tokens",
+            notes = "As of the given block number, or the latest block")
     @RequestMapping(value = "/{contractAddress}/totalSupply", method = RequestMethod.GET)
-    String totalSupply(@PathVariable String contractAddress) throws Exception {
-        return ContractService.totalSupply(contractAddress);
+    CompletableFuture<String> totalSupply(
+            @PathVariable String contractAddress,
+            @RequestParam(required = false) BigInteger block) {
+        return ContractService.totalSupply(contractAddress, block);
     }
 
     @ApiOperation(
             value = "Transfer tokens between addresses (must already be approved)",
-            notes = "Returns hex encoded transaction hash, and Transfer event if called")
+            notes = "Returns hex encoded transaction hash, and Transfer event if called. With "
+                    + "waitForReceipt=false only the hash is returned once the node accepts it")
     @ApiImplicitParam(name = "privateFor",
             value = "Comma separated list of public keys of enclave nodes that transaction is "
                     + "private for",
             paramType = "header",
             dataType = "string")
     @RequestMapping(value = "/{contractAddress}/transferFrom", method = RequestMethod.POST)
-    TransactionResponse<ContractService.TransferEventResponse> transferFrom(
+    CompletableFuture<TransactionResponse<ContractService.TransferEventResponse>> transferFrom(
             HttpServletRequest request,
             @PathVariable String contractAddress,
-            @RequestBody TransferFromRequest transferFromRequest) throws Exception {
+            @RequestBody TransferFromRequest transferFromRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
         return ContractService.transferFrom(
                 extractPrivateFor(request),
                 contractAddress,
                 transferFromRequest.getFrom(),
                 transferFromRequest.getTo(),
-                transferFromRequest.getValue());
+                transferFromRequest.getValue(),
+                waitForReceipt);
     }
 
     @ApiOperation("Get decimal precision of tokens")
     @RequestMapping(value = "/{contractAddress}/decimals", method = RequestMethod.GET)
-    String decimals(@PathVariable String contractAddress) throws Exception {
+    CompletableFuture<String> decimals(@PathVariable String contractAddress) {
         return ContractService.decimals(contractAddress);
     }
 
     @ApiOperation("Get contract version")
     @RequestMapping(value = "/{contractAddress}/version", method = RequestMethod.GET)
-    String version(@PathVariable String contractAddress) throws Exception {
+    CompletableFuture<String> version(@PathVariable String contractAddress) {
         return ContractService.version(contractAddress);
     }
 
-    @ApiOperation("Get token balance for address")
+    @ApiOperation(
+            value = "Get token balance for address",
+            notes = "As of the given block number, or the latest block")
     @RequestMapping(
             value = "/{contractAddress}/balanceOf/{ownerAddress}", method = RequestMethod.GET)
-    String balanceOf(
+    CompletableFuture<String> balanceOf(
+            @PathVariable String contractAddress,
+            @PathVariable String ownerAddress,
+            @RequestParam(required = false) BigInteger block) {
+        return ContractService.balanceOf(contractAddress, ownerAddress, block);
+    }
+
+    @ApiOperation(
+            value = "Get token balances for many addresses",
+            notes = "Returns the balance of each address, queried from the node in batches")
+    @RequestMapping(value = "/{contractAddress}/balances", method = RequestMethod.POST)
+    CompletableFuture<Map<String, String>> balances(
             @PathVariable String contractAddress,
-            @PathVariable String ownerAddress) throws Exception {
-        return ContractService.balanceOf(contractAddress, ownerAddress);
+            @RequestBody List<String> ownerAddresses) {
+        return ContractService.balances(contractAddress, ownerAddresses);
+    }
+
+    @ApiOperation(
+            value = "Get token summary",
+            notes = "Returns name, symbol, decimals, version and total supply as of a single block")
+    @RequestMapping(value = "/{contractAddress}/summary", method = RequestMethod.GET)
+    CompletableFuture<TokenSummary> summary(@PathVariable String contractAddress) {
+        return ContractService.summary(contractAddress);
     }
 
     @ApiOperation("Get token symbol")
     @RequestMapping(value = "/{contractAddress}/symbol", method = RequestMethod.GET)
-    String symbol(@PathVariable String contractAddress) throws Exception {
+    CompletableFuture<String> symbol(@PathVariable String contractAddress) {
         return ContractService.symbol(contractAddress);
     }
 
     @ApiOperation(
             value = "Transfer tokens you own to another address",
-            notes = "Returns hex encoded transaction hash, and Transfer event if called")
+            notes = "Returns hex encoded transaction hash, and Transfer event if called. With "
+                    + "waitForReceipt=false only the hash is returned once the node accepts it")
     @ApiImplicitParam(name = "privateFor",
             value = "Comma separated list of public keys of enclave nodes that transaction is "
                     + "private for",
             paramType = "header",
             dataType = "string")
     @RequestMapping(value = "/{contractAddress}/transfer", method = RequestMethod.POST)
-    TransactionResponse<ContractService.TransferEventResponse> transfer(
+    CompletableFuture<TransactionResponse<ContractService.TransferEventResponse>> transfer(
             HttpServletRequest request,
             @PathVariable String contractAddress,
-            @RequestBody TransferRequest transferRequest) throws Exception {
+            @RequestBody TransferRequest transferRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
         return ContractService.transfer(
                 extractPrivateFor(request),
                 contractAddress,
                 transferRequest.getTo(),
-                transferRequest.getValue());
+                transferRequest.getValue(),
+                waitForReceipt);
+    }
+
+    @ApiOperation(
+            value = "Transfer tokens to many addresses",
+            notes = "Submits every transfer without waiting for earlier ones to be mined. Entries "
+                    + "with a from address are sent as transferFrom. Returns the transaction "
+                    + "hash and Transfer event, or the error, of each entry in order. Entries "
+                    + "that failed once sent still have their transaction hash")
+    @ApiImplicitParam(name = "privateFor",
+            value = "Comma separated list of public keys of enclave nodes that transaction is "
+                    + "private for",
+            paramType = "header",
+            dataType = "string")
+    @RequestMapping(value = "/{contractAddress}/transfers", method = RequestMethod.POST)
+    CompletableFuture<List<TransferResult>> transfers(
+            HttpServletRequest request,
+            @PathVariable String contractAddress,
+            @RequestBody List<TransferFromRequest> transferRequests,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
+        List<ContractService.Transfer> transfers = new ArrayList<>(transferRequests.size());
+        for (TransferFromRequest transferRequest : transferRequests) {
+            transfers.add(new ContractService.Transfer(
+                    transferRequest.getFrom(),
+                    transferRequest.getTo(),
+                    transferRequest.getValue()));
+        }
+        return ContractService.transfers(
+                extractPrivateFor(request), contractAddress, transfers, waitForReceipt);
     }
 
     @ApiOperation(
             value = "Approve transfers by a specific contract address up to the provided total "
                     + "quantity, and notify that contract address of the approval",
-            notes = "Returns hex encoded transaction hash, and Approval event if called")
+            notes = "Returns hex encoded transaction hash, and Approval event if called. With "
+                    + "waitForReceipt=false only the hash is returned once the node accepts it")
     @ApiImplicitParam(name = "privateFor",
             value = "Comma separated list of public keys of enclave nodes that transaction is "
                     + "private for",
             paramType = "header",
             dataType = "string")
     @RequestMapping(value = "/{contractAddress}/approveAndCall", method = RequestMethod.POST)
-    TransactionResponse<ContractService.ApprovalEventResponse> approveAndCall(
+    CompletableFuture<TransactionResponse<ContractService.ApprovalEventResponse>> approveAndCall(
             HttpServletRequest request,
             @PathVariable String contractAddress,
-            @RequestBody ApproveAndCallRequest approveAndCallRequest) throws Exception {
+            @RequestBody ApproveAndCallRequest approveAndCallRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
         return ContractService.approveAndCall(
                 extractPrivateFor(request),
                 contractAddress,
                 approveAndCallRequest.getSpender(),
                 approveAndCallRequest.getValue(),
-                approveAndCallRequest.getExtraData());
+                approveAndCallRequest.getExtraData(),
+                waitForReceipt);
     }
 
-    @ApiOperation("Get quantity of tokens you can transfer on another token holder's behalf")
+    @ApiOperation(
+            value = "Get quantity of tokens you can transfer on another token holder's behalf",
+            notes = "As of the given block number, or the latest block")
     @RequestMapping(value = "/{contractAddress}/allowance", method = RequestMethod.GET)
-    String allowance(
+    CompletableFuture<String> allowance(
             @PathVariable String contractAddress,
             @RequestParam String ownerAddress,
-            @RequestParam String spenderAddress) throws Exception {
+            @RequestParam String spenderAddress,
+            @RequestParam(required = false) BigInteger block) {
         return ContractService.allowance(
-                contractAddress, ownerAddress, spenderAddress);
+                contractAddress, ownerAddress, spenderAddress, block);
+    }
+
+    @ApiOperation(
+            value = "Get the status of a submitted transaction",
+            notes = "Returns the receipt status, and any Transfer or Approval events once mined")
+    @RequestMapping(value = "/transactions/{transactionHash}", method = RequestMethod.GET)
+    CompletableFuture<TransactionStatus> transactionStatus(@PathVariable String transactionHash) {
+        return ContractService.transactionStatus(transactionHash);
+    }
+
+    @ApiOperation(
+            value = "Index the Transfer and Approval events of a token",
+            notes = "Backfills events from the token's deployment, then follows new blocks")
+    @RequestMapping(value = "/{contractAddress}/events/index", method = RequestMethod.POST)
+    EventIndex.IndexStatus registerEventIndex(@PathVariable String contractAddress) {
+        validateAddress(contractAddress);
+        return eventIndex.register(contractAddress);
+    }
+
+    @ApiOperation("Get how far the events of a token have been indexed")
+    @RequestMapping(value = "/{contractAddress}/events/index", method = RequestMethod.GET)
+    EventIndex.IndexStatus eventIndexStatus(@PathVariable String contractAddress) {
+        return eventIndex.status(contractAddress);
+    }
+
+    @ApiOperation(
+            value = "Get indexed Transfer and Approval events of a token",
+            notes = "Returns a page of events in chain order, optionally only those to or from "
+                    + "an address and within an inclusive block range. Events of an address are "
+                    + "found by reading every event in the block range")
+    @RequestMapping(value = "/{contractAddress}/events", method = RequestMethod.GET)
+    EventIndex.EventPage events(
+            @PathVariable String contractAddress,
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) BigInteger fromBlock,
+            @RequestParam(required = false) BigInteger toBlock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return eventIndex.events(contractAddress, address, fromBlock, toBlock, page, size);
+    }
+
+    @ApiOperation(
+            value = "Stream Transfer and Approval events of a token",
+            notes = "Pushes new events as Server-Sent Events, slow clients may miss events")
+    @RequestMapping(value = "/{contractAddress}/events/stream", method = RequestMethod.GET,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter eventStream(@PathVariable String contractAddress) {
+        return eventStreams.stream(contractAddress);
     }
 
     private static @Nullable List<String> extractPrivateFor(HttpServletRequest request) {
@@ -203,6 +399,56 @@ public class Controller {
         }
     }
 
+    static void validateAddress(String contractAddress) {
+        if (!WalletUtils.isValidAddress(contractAddress)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Invalid contract address " + contractAddress);
+        }
+    }
+
+    /**
+     * Reject a batch the factory can't create in one transaction before sending anything, as
+     * the error from the node or the ABI encoding wouldn't say which token was at fault.
+     */
+    static void validateBatch(List<ContractSpecification> contractSpecifications, int maxSize) {
+        if (contractSpecifications == null || contractSpecifications.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No tokens to deploy");
+        }
+        if (contractSpecifications.size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxSize + " tokens can be deployed in a batch, not "
+                            + contractSpecifications.size());
+        }
+        for (int i = 0; i < contractSpecifications.size(); i++) {
+            ContractSpecification contractSpecification = contractSpecifications.get(i);
+            if (contractSpecification == null
+                    || contractSpecification.getInitialAmount() == null
+                    || contractSpecification.getTokenName() == null
+                    || contractSpecification.getDecimalUnits() == null
+                    || contractSpecification.getTokenSymbol() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Token " + i + " needs an initialAmount, tokenName, decimalUnits and "
+                                + "tokenSymbol");
+            }
+            if (!fits(contractSpecification.getInitialAmount(), 256)
+                    || !fits(contractSpecification.getDecimalUnits(), 8)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Token " + i + " needs an initialAmount of at most 256 bits and "
+                                + "decimalUnits of at most 8 bits, neither negative");
+            }
+        }
+    }
+
+    private static boolean fits(BigInteger value, int bits) {
+        return value.signum() >= 0 && value.bitLength() <= bits;
+    }
+
+    static <T> List<T> map(
+            List<ContractSpecification> contractSpecifications,
+            Function<ContractSpecification, T> field) {
+        return contractSpecifications.stream().map(field).collect(Collectors.toList());
+    }
+
     @Data
     static class ContractSpecification {
         private  BigInteger initialAmount;
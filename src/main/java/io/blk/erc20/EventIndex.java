@@ -0,0 +1,790 @@
+package io.blk.erc20;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import javax.annotation.PreDestroy;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.annotations.Nullable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.WalletUtils;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthGetCode;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.quorum.Quorum;
+
+/**
+ * Embedded index of the Transfer and Approval events of registered tokens, kept in
+ * {@link NodeConfiguration#getEventIndexDirectory()}.
+ *
+ * <p>Each token has an append-only file of JSON records: the block it was deployed in, its
+ * events, and a checkpoint after each range of blocks fetched with {@code eth_getLogs}. Events
+ * are only taken into account once the checkpoint following them has been written, so after a
+ * restart indexing resumes from the last checkpoint, dropping anything written after it. Each
+ * poll reads the head and logs from the same node, so no checkpoint passes logs it lacked.
+ *
+ * <p>Pages of events are read from the file, so a token's history is never held in memory. Only
+ * the offset and block of every {@value #MARK_INTERVAL}th event are kept, to find where a page
+ * or block starts. Queries for the events of an address read every event of the token within
+ * the block range.
+ */
+@Component
+public class EventIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventIndex.class);
+
+    private static final String EXTENSION = ".events";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MARK_INTERVAL = 256;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Quorum quorum;
+
+    private final BlockHeads blockHeads;
+
+    private final NodePool nodePool;
+
+    private final Path directory;
+
+    private final int blockRange;
+
+    private final BigInteger confirmations;
+
+    private final Map<String, ContractIndex> indexes = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-index");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Disposable headsSubscription;
+
+    @Autowired
+    public EventIndex(
+            Quorum quorum, BlockHeads blockHeads, NodePool nodePool,
+            NodeConfiguration nodeConfiguration) {
+        this.quorum = quorum;
+        this.blockHeads = blockHeads;
+        this.nodePool = nodePool;
+        this.blockRange = Math.max(1, nodeConfiguration.getEventIndexBlockRange());
+        this.confirmations = BigInteger.valueOf(nodeConfiguration.getEventIndexConfirmations());
+
+        String eventIndexDirectory = nodeConfiguration.getEventIndexDirectory();
+        if (eventIndexDirectory == null || eventIndexDirectory.isEmpty()) {
+            this.directory = null;
+            this.headsSubscription = null;
+            if (!nodeConfiguration.getIndexedContracts().isEmpty()) {
+                log.warn("No event index directory configured, not indexing {}",
+                        nodeConfiguration.getIndexedContracts());
+            }
+        } else {
+            this.directory = new File(eventIndexDirectory).toPath();
+            load();
+            for (String contractAddress : nodeConfiguration.getIndexedContracts()) {
+                register(contractAddress);
+            }
+            long interval = nodeConfiguration.getEventPollInterval();
+            scheduler.scheduleWithFixedDelay(this::poll, 0, interval, TimeUnit.MILLISECONDS);
+            this.headsSubscription =
+                    blockHeads.heads().subscribe(head -> scheduler.execute(this::poll));
+        }
+    }
+
+    /**
+     * Start indexing a token, if we aren't already. The address names its file, so has to be a
+     * valid one.
+     */
+    public IndexStatus register(String contractAddress) {
+        if (directory == null) {
+            throw new RuntimeException(
+                    "Event index is disabled, configure io.blk.erc20.eventIndexDirectory");
+        }
+        if (!WalletUtils.isValidAddress(contractAddress)) {
+            throw new IllegalArgumentException("Invalid contract address " + contractAddress);
+        }
+        ContractIndex index = indexes.computeIfAbsent(
+                TokenEvents.normalise(contractAddress), this::open);
+        return status(index);
+    }
+
+    public IndexStatus status(String contractAddress) {
+        return status(indexFor(contractAddress));
+    }
+
+    /**
+     * A page of indexed events in chain order, optionally only those involving an address
+     * and within a block range, both inclusive.
+     */
+    public EventPage events(
+            String contractAddress, @Nullable String address,
+            @Nullable BigInteger fromBlock, @Nullable BigInteger toBlock, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + size);
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        ContractIndex index = indexFor(contractAddress);
+        long count;
+        BigInteger indexedBlock;
+        synchronized (index) {
+            count = index.events;
+            indexedBlock = index.indexedBlock;
+        }
+        try {
+            long start = fromBlock == null ? 0 : lowerBound(index, count, fromBlock);
+            long end = toBlock == null
+                    ? count
+                    : Math.max(start, lowerBound(index, count, toBlock.add(BigInteger.ONE)));
+            List<IndexedEvent> events = new ArrayList<>();
+            long totalEvents;
+            if (address == null) {
+                long first = Math.min(end, start + (long) page * size);
+                read(index, first, Math.min(end, first + size), events::add);
+                totalEvents = end - start;
+            } else {
+                String normalised = TokenEvents.normalise(address);
+                long first = (long) page * size;
+                int pageSize = size;
+                long[] matches = new long[1];
+                read(index, start, end, event -> {
+                    if (event.getFrom().equals(normalised) || event.getTo().equals(normalised)) {
+                        if (matches[0] >= first && events.size() < pageSize) {
+                            events.add(event);
+                        }
+                        matches[0]++;
+                    }
+                    return true;
+                });
+                totalEvents = matches[0];
+            }
+            return new EventPage(events, page, size, totalEvents, indexedBlock);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading event index of " + contractAddress, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (headsSubscription != null) {
+            headsSubscription.dispose();
+        }
+        scheduler.shutdownNow();
+        for (ContractIndex index : indexes.values()) {
+            try {
+                index.channel.close();
+            } catch (IOException e) {
+                log.warn("Unable to close event index of {}", index.contractAddress, e);
+            }
+        }
+    }
+
+    private ContractIndex indexFor(String contractAddress) {
+        ContractIndex index = indexes.get(TokenEvents.normalise(contractAddress));
+        if (index == null) {
+            throw new RuntimeException("Events of " + contractAddress + " are not indexed");
+        }
+        return index;
+    }
+
+    private IndexStatus status(ContractIndex index) {
+        synchronized (index) {
+            return new IndexStatus(
+                    index.contractAddress, index.fromBlock, index.indexedBlock, index.events);
+        }
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files =
+                     Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String contractAddress =
+                        fileName.substring(0, fileName.length() - EXTENSION.length());
+                if (WalletUtils.isValidAddress(contractAddress)) {
+                    register(contractAddress);
+                } else {
+                    log.warn("Skipping event index {}, not named after a contract address", file);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading event index " + directory, e);
+        }
+    }
+
+    private ContractIndex open(String contractAddress) {
+        Path file = directory.resolve(contractAddress + EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            ContractIndex index = new ContractIndex(contractAddress, file);
+            if (Files.exists(file) && !replay(index, null)) {
+                log.info("Rewriting event index {} without uncommitted records", file);
+                Path rewritten = file.resolveSibling(file.getFileName() + ".tmp");
+                try (OutputStream out =
+                        new BufferedOutputStream(Files.newOutputStream(rewritten))) {
+                    replay(new ContractIndex(contractAddress, file), out);
+                }
+                Files.move(rewritten, file,
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                index = new ContractIndex(contractAddress, file);
+                replay(index, null);
+            }
+            index.channel = FileChannel.open(
+                    file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            // Drop anything written after the last checkpoint
+            if (index.channel.size() > index.size) {
+                index.channel.truncate(index.size);
+            }
+            log.info("Loaded {} events of {} indexed up to block {}",
+                    index.events, contractAddress, index.indexedBlock);
+            return index;
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening event index " + file, e);
+        }
+    }
+
+    /**
+     * Read a token's file, marking its committed events and writing their records to out if
+     * given.
+     *
+     * <p>A write interrupted part way through can leave records that were never committed
+     * before later ones, which older versions also did when retrying. These are dropped, and
+     * duplicate events fetched again skipped.
+     *
+     * @return whether the committed records are all there is up to the last checkpoint, so the
+     *     file can be served from as it is
+     */
+    private boolean replay(ContractIndex index, @Nullable OutputStream out) throws IOException {
+        boolean canonical = true;
+        boolean dirty = false;
+        List<PendingEvent> pending = new ArrayList<>();
+        long offset = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(index.file))) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] line;
+            while ((line = readLine(in, buffer)) != null) {
+                long lineOffset = offset;
+                offset += line.length + 1;
+                Record record;
+                try {
+                    record = objectMapper.readValue(line, Record.class);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable record in {}: {}",
+                            index.file, new String(line, StandardCharsets.UTF_8));
+                    dirty = true;
+                    continue;
+                }
+                if (record.getFromBlock() != null) {
+                    index.fromBlock = record.getFromBlock();
+                    writeLine(out, line);
+                    index.size = offset;
+                }
+                if (record.getEvent() != null) {
+                    pending.add(new PendingEvent(record.getEvent(), lineOffset, line));
+                }
+                if (record.getCheckpoint() != null) {
+                    BigInteger checkpoint = record.getCheckpoint();
+                    List<PendingEvent> committed = new ArrayList<>();
+                    List<PendingEvent> remaining = new ArrayList<>();
+                    Set<String> keys = new HashSet<>();
+                    for (PendingEvent event : pending) {
+                        BigInteger blockNumber = event.event.getBlockNumber();
+                        if (index.indexedBlock != null
+                                && blockNumber.compareTo(index.indexedBlock) <= 0) {
+                            dirty = true;
+                        } else if (blockNumber.compareTo(checkpoint) > 0) {
+                            remaining.add(event);
+                            dirty = true;
+                        } else if (!keys.add(event.key())) {
+                            dirty = true;
+                        } else {
+                            committed.add(event);
+                        }
+                    }
+                    List<PendingEvent> sorted = new ArrayList<>(committed);
+                    sorted.sort(PendingEvent.CHAIN_ORDER);
+                    canonical &= !dirty && sorted.equals(committed);
+
+                    for (PendingEvent event : sorted) {
+                        index.add(event.offset, event.event.getBlockNumber());
+                        writeLine(out, event.line);
+                    }
+                    writeLine(out, line);
+                    index.indexedBlock = checkpoint;
+                    index.size = offset;
+                    pending = remaining;
+                    dirty = false;
+                }
+            }
+        }
+        return canonical;
+    }
+
+    // The next whole line, without its newline
+    private static byte[] readLine(InputStream in, ByteArrayOutputStream buffer)
+            throws IOException {
+        buffer.reset();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                return buffer.toByteArray();
+            }
+            buffer.write(b);
+        }
+        // Anything after the last newline was left by an interrupted write
+        return null;
+    }
+
+    private static void writeLine(@Nullable OutputStream out, byte[] line) throws IOException {
+        if (out != null) {
+            out.write(line);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * The position of the first of the given number of events that is at or after a block.
+     */
+    private long lowerBound(ContractIndex index, long count, BigInteger blockNumber)
+            throws IOException {
+        int mark;
+        synchronized (index) {
+            int low = 0;
+            int high = (int) ((count + MARK_INTERVAL - 1) / MARK_INTERVAL);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (index.marks.get(middle).blockNumber.compareTo(blockNumber) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            mark = low - 1;
+        }
+        if (mark < 0) {
+            return 0;
+        }
+        // The next mark is at or after the block, so this reads fewer than MARK_INTERVAL events
+        long[] position = {(long) mark * MARK_INTERVAL};
+        read(index, position[0], count, event -> {
+            if (event.getBlockNumber().compareTo(blockNumber) < 0) {
+                position[0]++;
+                return true;
+            }
+            return false;
+        });
+        return position[0];
+    }
+
+    /**
+     * Read the events at the given positions in chain order, until the visitor returns false.
+     */
+    private void read(
+            ContractIndex index, long first, long end, Predicate<IndexedEvent> visitor)
+            throws IOException {
+        if (first >= end) {
+            return;
+        }
+        Mark mark;
+        synchronized (index) {
+            mark = index.marks.get((int) (first / MARK_INTERVAL));
+        }
+        long position = first / MARK_INTERVAL * MARK_INTERVAL;
+        try (FileChannel channel = FileChannel.open(index.file, StandardOpenOption.READ);
+                BufferedReader reader = new BufferedReader(Channels.newReader(
+                        channel.position(mark.offset), StandardCharsets.UTF_8.newDecoder(), -1))) {
+            String line;
+            while (position < end && (line = reader.readLine()) != null) {
+                IndexedEvent event = objectMapper.readValue(line, Record.class).getEvent();
+                if (event != null && position++ >= first && !visitor.test(event)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void poll() {
+        try {
+            if (indexes.isEmpty()) {
+                return;
+            }
+            // Logs missing from a node behind the one giving the head would leave gaps
+            try (NodePool.Pin pin = nodePool.pin(nodePool.readRole(indexes.keySet()))) {
+                BigInteger head = blockHeads.latest().subtract(confirmations);
+                if (head.signum() < 0) {
+                    return;
+                }
+
+                for (ContractIndex index : indexes.values()) {
+                    try {
+                        follow(index, head);
+                    } catch (Exception e) {
+                        log.warn("Unable to index events of {}, retrying on next poll",
+                                index.contractAddress, e);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unable to poll for indexed events, retrying on next poll", e);
+        }
+    }
+
+    private void follow(ContractIndex index, BigInteger head) throws Exception {
+        if (index.fromBlock == null) {
+            BigInteger deploymentBlock = deploymentBlock(index.contractAddress, head);
+            if (deploymentBlock == null) {
+                log.debug("No contract at {} as of block {}", index.contractAddress, head);
+                return;
+            }
+            Record record = new Record();
+            record.setFromBlock(deploymentBlock);
+            write(index, Collections.singletonList(record));
+            index.fromBlock = deploymentBlock;
+        }
+
+        BigInteger next = index.indexedBlock == null
+                ? index.fromBlock : index.indexedBlock.add(BigInteger.ONE);
+        while (next.compareTo(head) <= 0 && !Thread.currentThread().isInterrupted()) {
+            BigInteger toBlock = next.add(BigInteger.valueOf(index.blockRange - 1)).min(head);
+            List<IndexedEvent> events;
+            try {
+                events = getLogs(index.contractAddress, next, toBlock);
+            } catch (Exception e) {
+                // Nodes limit the number of logs returned, so retry over fewer blocks
+                if (index.blockRange == 1) {
+                    throw e;
+                }
+                index.blockRange = Math.max(1, index.blockRange / 2);
+                log.debug("Reducing block range of {} to {}",
+                        index.contractAddress, index.blockRange, e);
+                continue;
+            }
+            commit(index, events, toBlock);
+            index.blockRange = Math.min(blockRange, index.blockRange * 2);
+            next = toBlock.add(BigInteger.ONE);
+        }
+    }
+
+    /**
+     * The first block with the contract's code, found by bisection. This needs historical state,
+     * so if the node has pruned it we index from the genesis block instead.
+     */
+    private BigInteger deploymentBlock(String contractAddress, BigInteger head) throws Exception {
+        if (!hasCode(contractAddress, head)) {
+            return null;
+        }
+        BigInteger low = BigInteger.ZERO;
+        BigInteger high = head;
+        try {
+            while (low.compareTo(high) < 0) {
+                BigInteger middle = low.add(high).shiftRight(1);
+                if (hasCode(contractAddress, middle)) {
+                    high = middle;
+                } else {
+                    low = middle.add(BigInteger.ONE);
+                }
+            }
+            return low;
+        } catch (Exception e) {
+            log.info("Unable to find deployment block of {}, indexing from block 0",
+                    contractAddress, e);
+            return BigInteger.ZERO;
+        }
+    }
+
+    private boolean hasCode(String contractAddress, BigInteger blockNumber) throws Exception {
+        EthGetCode ethGetCode = quorum.ethGetCode(
+                contractAddress, DefaultBlockParameter.valueOf(blockNumber)).send();
+        if (ethGetCode.hasError()) {
+            throw new RuntimeException(ethGetCode.getError().getMessage());
+        }
+        String code = ethGetCode.getCode();
+        return code != null && !code.equals("0x");
+    }
+
+    private List<IndexedEvent> getLogs(
+            String contractAddress, BigInteger fromBlock, BigInteger toBlock) throws Exception {
+        EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(fromBlock),
+                DefaultBlockParameter.valueOf(toBlock),
+                contractAddress);
+        filter.addOptionalTopics(TokenEvents.TRANSFER_TOPIC, TokenEvents.APPROVAL_TOPIC);
+
+        EthLog ethLog = quorum.ethGetLogs(filter).send();
+        if (ethLog.hasError()) {
+            throw new RuntimeException(ethLog.getError().getMessage());
+        }
+        List<IndexedEvent> events = new ArrayList<>();
+        for (EthLog.LogResult<?> logResult : ethLog.getLogs()) {
+            IndexedEvent event = IndexedEvent.fromLog((Log) logResult.get());
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private void commit(ContractIndex index, List<IndexedEvent> events, BigInteger toBlock)
+            throws IOException {
+        List<Record> records = new ArrayList<>(events.size() + 1);
+        for (IndexedEvent event : events) {
+            Record record = new Record();
+            record.setEvent(event);
+            records.add(record);
+        }
+        Record checkpoint = new Record();
+        checkpoint.setCheckpoint(toBlock);
+        records.add(checkpoint);
+        long[] offsets = write(index, records);
+
+        synchronized (index) {
+            for (int i = 0; i < events.size(); i++) {
+                index.add(offsets[i], events.get(i).getBlockNumber());
+            }
+            index.indexedBlock = toBlock;
+        }
+    }
+
+    /**
+     * Append records to a token's file.
+     *
+     * @return the offset of each record in the file
+     */
+    private long[] write(ContractIndex index, List<Record> records) throws IOException {
+        if (index.channel.size() != index.size) {
+            // Drop what was written of records that failed part way through
+            index.channel.truncate(index.size);
+        }
+        long[] offsets = new long[records.size()];
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (int i = 0; i < records.size(); i++) {
+            offsets[i] = index.size + lines.size();
+            lines.write(objectMapper.writeValueAsBytes(records.get(i)));
+            lines.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            index.channel.write(buffer);
+        }
+        index.channel.force(false);
+        index.size += lines.size();
+        return offsets;
+    }
+
+    private class ContractIndex {
+        private final String contractAddress;
+        private final Path file;
+        // Guarded by this, every MARK_INTERVALth event in chain order from the first
+        private final List<Mark> marks = new ArrayList<>();
+        private long events;
+        private volatile BigInteger fromBlock;
+        private volatile BigInteger indexedBlock;
+        // Only accessed from the scheduler thread once opened
+        private FileChannel channel;
+        private long size;
+        private int blockRange = EventIndex.this.blockRange;
+
+        ContractIndex(String contractAddress, Path file) {
+            this.contractAddress = contractAddress;
+            this.file = file;
+        }
+
+        private void add(long offset, BigInteger blockNumber) {
+            if (events % MARK_INTERVAL == 0) {
+                marks.add(new Mark(offset, blockNumber));
+            }
+            events++;
+        }
+    }
+
+    /**
+     * Where an event's record is in a token's file.
+     */
+    private static final class Mark {
+        private final long offset;
+        private final BigInteger blockNumber;
+
+        Mark(long offset, BigInteger blockNumber) {
+            this.offset = offset;
+            this.blockNumber = blockNumber;
+        }
+    }
+
+    /**
+     * An event read from a token's file, not yet followed by a checkpoint.
+     */
+    private static final class PendingEvent {
+        private static final Comparator<PendingEvent> CHAIN_ORDER = Comparator
+                .<PendingEvent, BigInteger>comparing(pending -> pending.event.getBlockNumber())
+                .thenComparing(pending -> pending.event.getLogIndex());
+
+        private final IndexedEvent event;
+        private final long offset;
+        private final byte[] line;
+
+        PendingEvent(IndexedEvent event, long offset, byte[] line) {
+            this.event = event;
+            this.offset = offset;
+            this.line = line;
+        }
+
+        private String key() {
+            return event.getTransactionHash() + ":" + event.getLogIndex();
+        }
+    }
+
+    /**
+     * A line of a token's index file, holding one of its fields.
+     */
+    static class Record {
+        private BigInteger fromBlock;
+        private IndexedEvent event;
+        private BigInteger checkpoint;
+
+        public BigInteger getFromBlock() {
+            return fromBlock;
+        }
+
+        public void setFromBlock(BigInteger fromBlock) {
+            this.fromBlock = fromBlock;
+        }
+
+        public IndexedEvent getEvent() {
+            return event;
+        }
+
+        public void setEvent(IndexedEvent event) {
+            this.event = event;
+        }
+
+        public BigInteger getCheckpoint() {
+            return checkpoint;
+        }
+
+        public void setCheckpoint(BigInteger checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+    }
+
+    /**
+     * How far the events of a token have been indexed.
+     */
+    public static class IndexStatus {
+        private final String contractAddress;
+        private final BigInteger fromBlock;
+        private final BigInteger indexedBlock;
+        private final long events;
+
+        IndexStatus(
+                String contractAddress, BigInteger fromBlock, BigInteger indexedBlock,
+                long events) {
+            this.contractAddress = contractAddress;
+            this.fromBlock = fromBlock;
+            this.indexedBlock = indexedBlock;
+            this.events = events;
+        }
+
+        public String getContractAddress() {
+            return contractAddress;
+        }
+
+        public BigInteger getFromBlock() {
+            return fromBlock;
+        }
+
+        public BigInteger getIndexedBlock() {
+            return indexedBlock;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+    }
+
+    /**
+     * A page of indexed events, along with the total number matching the query.
+     */
+    public static class EventPage {
+        private final List<IndexedEvent> events;
+        private final int page;
+        private final int size;
+        private final long totalEvents;
+        private final BigInteger indexedBlock;
+
+        EventPage(
+                List<IndexedEvent> events, int page, int size, long totalEvents,
+                BigInteger indexedBlock) {
+            this.events = events;
+            this.page = page;
+            this.size = size;
+            this.totalEvents = totalEvents;
+            this.indexedBlock = indexedBlock;
+        }
+
+        public List<IndexedEvent> getEvents() {
+            return events;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getTotalEvents() {
+            return totalEvents;
+        }
+
+        public BigInteger getIndexedBlock() {
+            return indexedBlock;
+        }
+    }
+}
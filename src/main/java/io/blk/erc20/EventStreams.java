@@ -0,0 +1,107 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Streams the Transfer and Approval events of a token to clients as Server-Sent Events.
+ *
+ * <p>All streams of a token share the single upstream query of {@link TokenEvents}. Each
+ * stream buffers up to {@link NodeConfiguration#getEventStreamBufferSize()} events for a slow
+ * client, then applies {@link NodeConfiguration#getEventStreamOverflowStrategy()}: dropping
+ * the oldest or latest events, or with ERROR closing the stream.
+ */
+@Component
+public class EventStreams {
+
+    private static final Logger log = LoggerFactory.getLogger(EventStreams.class);
+
+    private final TokenEvents tokenEvents;
+
+    private final int bufferSize;
+
+    private final BackpressureOverflowStrategy overflowStrategy;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    // Sends block on slow clients, so are kept off the poller thread
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "event-stream-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Scheduler scheduler = Schedulers.from(executor);
+
+    @Autowired
+    public EventStreams(TokenEvents tokenEvents, NodeConfiguration nodeConfiguration) {
+        this.tokenEvents = tokenEvents;
+        this.bufferSize = Math.max(1, nodeConfiguration.getEventStreamBufferSize());
+        this.overflowStrategy = nodeConfiguration.getEventStreamOverflowStrategy();
+    }
+
+    public SseEmitter stream(String contractAddress) {
+        // Streams stay open until the client goes away
+        SseEmitter emitter = new SseEmitter(0L);
+
+        Disposable disposable = delivered(contractAddress)
+                .subscribe(
+                        tokenLog -> send(emitter, tokenLog),
+                        emitter::completeWithError);
+
+        emitter.onCompletion(disposable::dispose);
+        emitter.onTimeout(disposable::dispose);
+        emitter.onError(throwable -> disposable.dispose());
+        return emitter;
+    }
+
+    /**
+     * New Transfer and Approval logs of a token, buffered for a slow client of a stream.
+     */
+    public Flowable<Log> logs(String contractAddress) {
+        return tokenEvents.logs(contractAddress)
+                .onBackpressureBuffer(
+                        bufferSize,
+                        () -> log.debug("Event stream of {} overflowed", contractAddress),
+                        overflowStrategy);
+    }
+
+    /**
+     * Logs of a token handed to a stream's thread one at a time, so a client blocked on a send
+     * holds no more than the buffer rather than also filling the scheduler's own queue.
+     */
+    Flowable<Log> delivered(String contractAddress) {
+        return logs(contractAddress).observeOn(scheduler, false, 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void send(SseEmitter emitter, Log log) throws IOException {
+        IndexedEvent event = IndexedEvent.fromLog(log);
+        if (event == null) {
+            return;
+        }
+        emitter.send(SseEmitter.event()
+                .id(event.getTransactionHash() + ":" + event.getLogIndex())
+                .name(event.getType().getEventName())
+                .data(event));
+    }
+}
@@ -0,0 +1,123 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.reactivex.disposables.Disposable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of token reads as of past blocks, such as balances for audits.
+ *
+ * <p>Values read at a block at least {@link NodeConfiguration#getFinalityDepth()} blocks
+ * behind the latest one can no longer change, so are kept until evicted by size rather than
+ * expiring. Reads of more recent blocks are never cached, as those blocks may still be
+ * reorganised. The latest block is taken from {@link BlockHeads} when it's pushed, otherwise
+ * from whenever the node was last asked for it.
+ */
+@Component
+public class HistoricalCache {
+
+    private final boolean enabled;
+
+    private final BigInteger finalityDepth;
+
+    private final Cache<ReadKey, BigInteger> values;
+
+    private final AtomicReference<BigInteger> finalBlock = new AtomicReference<>();
+
+    private final Disposable subscription;
+
+    @Autowired
+    public HistoricalCache(NodeConfiguration nodeConfiguration, BlockHeads blockHeads) {
+        this.enabled = nodeConfiguration.getHistoricalCacheSize() > 0;
+        this.finalityDepth = BigInteger.valueOf(nodeConfiguration.getFinalityDepth());
+        this.values = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, nodeConfiguration.getHistoricalCacheSize()))
+                .build();
+        this.subscription = enabled ? blockHeads.heads().subscribe(this::head) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The value read at a block, if it's been cached.
+     *
+     * @param data the calldata of the read, its function selector and arguments
+     */
+    public BigInteger get(String contractAddress, String data, BigInteger blockNumber) {
+        return enabled
+                ? values.getIfPresent(new ReadKey(contractAddress, data, blockNumber)) : null;
+    }
+
+    /**
+     * Cache a value read at a block, unless the block isn't yet known to be final.
+     */
+    public void put(String contractAddress, String data, BigInteger blockNumber, BigInteger value) {
+        if (enabled && isFinal(blockNumber)) {
+            values.put(new ReadKey(contractAddress, data, blockNumber), value);
+        }
+    }
+
+    /**
+     * Whether a block is known to be final, without asking the node for the latest one.
+     */
+    public boolean isFinal(BigInteger blockNumber) {
+        BigInteger block = finalBlock.get();
+        return block != null && blockNumber.compareTo(block) <= 0;
+    }
+
+    /**
+     * Record the latest block of the node.
+     */
+    public void head(BigInteger blockNumber) {
+        BigInteger block = blockNumber.subtract(finalityDepth);
+        finalBlock.accumulateAndGet(block,
+                (current, update) -> current == null ? update : current.max(update));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private static final class ReadKey {
+        private final String contractAddress;
+        private final String data;
+        private final BigInteger blockNumber;
+
+        ReadKey(String contractAddress, String data, BigInteger blockNumber) {
+            this.contractAddress = TokenEvents.normalise(contractAddress);
+            this.data = data;
+            this.blockNumber = blockNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ReadKey that = (ReadKey) o;
+            return contractAddress.equals(that.contractAddress)
+                    && data.equals(that.data)
+                    && blockNumber.equals(that.blockNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contractAddress, data, blockNumber);
+        }
+    }
+}
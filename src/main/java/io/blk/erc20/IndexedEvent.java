@@ -0,0 +1,129 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import lombok.Getter;
+import lombok.Setter;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * A Transfer or Approval event, as held in the {@link EventIndex} and streamed to clients.
+ *
+ * <p>For Approval events, from is the owner and to the spender of the allowance.
+ */
+@Getter
+@Setter
+public class IndexedEvent {
+
+    public enum Type {
+        TRANSFER(HumanStandardToken.TRANSFER_EVENT.getName()),
+        APPROVAL(HumanStandardToken.APPROVAL_EVENT.getName());
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private Type type;
+    private BigInteger blockNumber;
+    private String transactionHash;
+    private BigInteger logIndex;
+    private String from;
+    private String to;
+    private BigInteger value;
+
+    IndexedEvent() { }
+
+    public IndexedEvent(
+            Type type, BigInteger blockNumber, String transactionHash, BigInteger logIndex,
+            String from, String to, BigInteger value) {
+        this.type = type;
+        this.blockNumber = blockNumber;
+        this.transactionHash = transactionHash;
+        this.logIndex = logIndex;
+        this.from = from;
+        this.to = to;
+        this.value = value;
+    }
+
+    /**
+     * Decode a Transfer or Approval log, null for any other log.
+     */
+    static IndexedEvent fromLog(Log log) {
+        Type type = log.isRemoved() ? null : TokenLogs.type(log);
+        if (type == null) {
+            return null;
+        }
+        return new IndexedEvent(
+                type,
+                log.getBlockNumber(),
+                log.getTransactionHash(),
+                log.getLogIndex(),
+                TokenLogs.from(log),
+                TokenLogs.to(log),
+                TokenLogs.value(log));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public BigInteger getBlockNumber() {
+        return blockNumber;
+    }
+
+    public void setBlockNumber(BigInteger blockNumber) {
+        this.blockNumber = blockNumber;
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public void setTransactionHash(String transactionHash) {
+        this.transactionHash = transactionHash;
+    }
+
+    public BigInteger getLogIndex() {
+        return logIndex;
+    }
+
+    public void setLogIndex(BigInteger logIndex) {
+        this.logIndex = logIndex;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public BigInteger getValue() {
+        return value;
+    }
+
+    public void setValue(BigInteger value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,194 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.reactivex.annotations.Nullable;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.http.HttpService;
+
+/**
+ * Sends JSON-RPC requests to the node as a single batch.
+ *
+ * <p>Batches are only supported over HTTP, for other transports the requests are sent
+ * individually. With several nodes configured, each batch goes to a single node chosen by the
+ * {@link NodePool} for all of its requests.
+ *
+ * <p>Batches are timed as the {@code node.batches} timer, tagged with the method of their
+ * first request and the outcome as for {@link MeteredService}.
+ */
+@Component
+public class JsonRpcBatch {
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private final OkHttpClient httpClient;
+
+    private final NodePool nodePool;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String url;
+
+    @Autowired
+    public JsonRpcBatch(
+            NodeConfiguration nodeConfiguration, NodeHttpClient nodeHttpClient,
+            NodePool nodePool, MeterRegistry meterRegistry) {
+        this.httpClient = nodeHttpClient.getClient();
+        this.nodePool = nodePool;
+        this.meterRegistry = meterRegistry;
+        String nodeEndpoint = nodeConfiguration.getNodeEndpoint();
+        if (nodeEndpoint == null || nodeEndpoint.equals("")) {
+            this.url = HttpService.DEFAULT_URL;
+        } else if (nodeEndpoint.startsWith("http")) {
+            this.url = nodeEndpoint;
+        } else {
+            this.url = null;
+        }
+    }
+
+    /**
+     * Send the requests, returning their responses in the same order.
+     */
+    public <T extends Response<?>> CompletableFuture<List<T>> sendAsync(
+            List<? extends Request<?, T>> requests, Class<T> responseType) {
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        NodePool.Node node = nodePool.isEnabled()
+                ? nodePool.select(requests, Collections.emptySet()) : null;
+        String url = node == null ? this.url : node.getUrl();
+        if (url == null) {
+            return sendIndividually(requests);
+        }
+
+        okhttp3.Request httpRequest;
+        try {
+            httpRequest = new okhttp3.Request.Builder()
+                    .url(url)
+                    .post(RequestBody.create(
+                            HttpService.JSON_MEDIA_TYPE, objectMapper.writeValueAsBytes(requests)))
+                    .build();
+        } catch (IOException e) {
+            CompletableFuture<List<T>> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        String method = requests.get(0).getMethod();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = node == null ? 0 : node.started();
+        httpClient.newCall(httpRequest).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                finished(node, started, false);
+                sample.stop(timer(method, MeteredService.FAILURE));
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, okhttp3.Response response) {
+                finished(node, started, response.code() < 500);
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful()) {
+                        throw new IOException("Invalid response received: "
+                                + response.code() + "; " + body.string());
+                    }
+                    List<T> responses = parse(body.bytes(), requests, responseType);
+                    sample.stop(timer(method, hasError(responses)
+                            ? MeteredService.ERROR : MeteredService.SUCCESS));
+                    result.complete(responses);
+                } catch (Exception e) {
+                    sample.stop(timer(method, MeteredService.FAILURE));
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        return result;
+    }
+
+    private <T extends Response<?>> List<T> parse(
+            byte[] body, List<? extends Request<?, T>> requests, Class<T> responseType)
+            throws IOException {
+        JsonNode responses = objectMapper.readTree(body);
+        if (!responses.isArray()) {
+            // Nodes reply with a single error object if they reject the batch outright
+            throw new IOException("Batch request rejected: " + responses);
+        }
+
+        Map<Long, T> byId = new HashMap<>();
+        for (JsonNode response : responses) {
+            T value = objectMapper.treeToValue(response, responseType);
+            byId.put(value.getId(), value);
+        }
+
+        List<T> result = new ArrayList<>(requests.size());
+        for (Request<?, T> request : requests) {
+            T response = byId.get(request.getId());
+            if (response == null) {
+                throw new IOException("No response received for request " + request.getId());
+            }
+            result.add(response);
+        }
+        return result;
+    }
+
+    private Timer timer(String method, String outcome) {
+        return Timer.builder("node.batches")
+                .description("JSON-RPC batches sent to the node")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static boolean hasError(List<? extends Response<?>> responses) {
+        for (Response<?> response : responses) {
+            if (response.hasError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void finished(@Nullable NodePool.Node node, long started, boolean reachable) {
+        if (node != null) {
+            node.finished(started, reachable);
+        }
+    }
+
+    private static <T extends Response<?>> CompletableFuture<List<T>> sendIndividually(
+            List<? extends Request<?, T>> requests) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(requests.size());
+        for (Request<?, T> request : requests) {
+            futures.add(request.sendAsync());
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<T> result = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        result.add(future.join());
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,78 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.reactivex.Flowable;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+
+/**
+ * Times every JSON-RPC request sent to the node, as the {@code node.requests} timer tagged
+ * with the method and its outcome: success, error for an error response from the node, or
+ * failure if the node couldn't be reached.
+ */
+public class MeteredService implements Web3jService {
+
+    static final String SUCCESS = "success";
+
+    static final String ERROR = "error";
+
+    static final String FAILURE = "failure";
+
+    private final Web3jService service;
+
+    private final MeterRegistry meterRegistry;
+
+    public MeteredService(Web3jService service, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = FAILURE;
+        try {
+            T response = service.send(request, responseType);
+            outcome = response.hasError() ? ERROR : SUCCESS;
+            return response;
+        } finally {
+            sample.stop(timer(request.getMethod(), outcome));
+        }
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(
+            Request request, Class<T> responseType) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return service.sendAsync(request, responseType).whenComplete((response, e) -> {
+            String outcome = e != null ? FAILURE : response.hasError() ? ERROR : SUCCESS;
+            sample.stop(timer(request.getMethod(), outcome));
+        });
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return service.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+
+    private Timer timer(String method, String outcome) {
+        return Timer.builder("node.requests")
+                .description("JSON-RPC requests sent to the node")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,5 +1,11 @@
 package io.blk.erc20;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import io.reactivex.BackpressureOverflowStrategy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -14,6 +20,42 @@ public class NodeConfiguration {
 
     private String nodeEndpoint = System.getProperty("nodeEndpoint");
     private String fromAddress = System.getProperty("fromAddress");
+    private int contractCacheSize = 1000;
+    private String metadataCacheFile;
+    private boolean asyncRequests;
+    private int batchSize = 100;
+    private int batchParallelism = 4;
+    private int balanceCacheSize = 10000;
+    private int balanceCacheContracts = 1000;
+    private long eventPollInterval = 1000;
+    private String eventIndexDirectory;
+    private List<String> indexedContracts = new ArrayList<>();
+    private int eventIndexBlockRange = 5000;
+    private int eventIndexConfirmations;
+    private int eventStreamBufferSize = 1000;
+    private BackpressureOverflowStrategy eventStreamOverflowStrategy =
+            BackpressureOverflowStrategy.DROP_OLDEST;
+    private boolean localNonces;
+    private long receiptPollInterval = 1000;
+    private long receiptTimeout = 600000;
+    private int httpMaxIdleConnections = 20;
+    private long httpKeepAlive = 300000;
+    private int httpMaxRequests = 64;
+    private int httpMaxRequestsPerHost = 64;
+    private long httpConnectTimeout = 10000;
+    private long httpReadTimeout = 10000;
+    private long httpWriteTimeout = 10000;
+    private boolean httpGzip = true;
+    private List<NodeEndpoint> nodeEndpoints = new ArrayList<>();
+    private int nodeFailureThreshold = 3;
+    private long nodeHealthCheckInterval = 5000;
+    private long webSocketReconnectDelay = 1000;
+    private boolean virtualThreads;
+    private boolean coalesceCalls = true;
+    private int historicalCacheSize = 10000;
+    private int finalityDepth = 12;
+    private String tokenFactoryAddress;
+    private int tokenFactoryBatchSize = 10;
 
     public String getNodeEndpoint() {
         return nodeEndpoint;
@@ -30,4 +72,318 @@ public class NodeConfiguration {
     public void setFromAddress(String fromAddress) {
         this.fromAddress = fromAddress;
     }
+
+    public int getContractCacheSize() {
+        return contractCacheSize;
+    }
+
+    public void setContractCacheSize(int contractCacheSize) {
+        this.contractCacheSize = contractCacheSize;
+    }
+
+    public String getMetadataCacheFile() {
+        return metadataCacheFile;
+    }
+
+    public void setMetadataCacheFile(String metadataCacheFile) {
+        this.metadataCacheFile = metadataCacheFile;
+    }
+
+    public boolean isAsyncRequests() {
+        return asyncRequests;
+    }
+
+    public void setAsyncRequests(boolean asyncRequests) {
+        this.asyncRequests = asyncRequests;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    public void setBatchParallelism(int batchParallelism) {
+        this.batchParallelism = batchParallelism;
+    }
+
+    public int getBalanceCacheSize() {
+        return balanceCacheSize;
+    }
+
+    public void setBalanceCacheSize(int balanceCacheSize) {
+        this.balanceCacheSize = balanceCacheSize;
+    }
+
+    public int getBalanceCacheContracts() {
+        return balanceCacheContracts;
+    }
+
+    public void setBalanceCacheContracts(int balanceCacheContracts) {
+        this.balanceCacheContracts = balanceCacheContracts;
+    }
+
+    public long getEventPollInterval() {
+        return eventPollInterval;
+    }
+
+    public void setEventPollInterval(long eventPollInterval) {
+        this.eventPollInterval = eventPollInterval;
+    }
+
+    public String getEventIndexDirectory() {
+        return eventIndexDirectory;
+    }
+
+    public void setEventIndexDirectory(String eventIndexDirectory) {
+        this.eventIndexDirectory = eventIndexDirectory;
+    }
+
+    public List<String> getIndexedContracts() {
+        return indexedContracts;
+    }
+
+    public void setIndexedContracts(List<String> indexedContracts) {
+        this.indexedContracts = indexedContracts;
+    }
+
+    public int getEventIndexBlockRange() {
+        return eventIndexBlockRange;
+    }
+
+    public void setEventIndexBlockRange(int eventIndexBlockRange) {
+        this.eventIndexBlockRange = eventIndexBlockRange;
+    }
+
+    public int getEventIndexConfirmations() {
+        return eventIndexConfirmations;
+    }
+
+    public void setEventIndexConfirmations(int eventIndexConfirmations) {
+        this.eventIndexConfirmations = eventIndexConfirmations;
+    }
+
+    public int getEventStreamBufferSize() {
+        return eventStreamBufferSize;
+    }
+
+    public void setEventStreamBufferSize(int eventStreamBufferSize) {
+        this.eventStreamBufferSize = eventStreamBufferSize;
+    }
+
+    public BackpressureOverflowStrategy getEventStreamOverflowStrategy() {
+        return eventStreamOverflowStrategy;
+    }
+
+    public void setEventStreamOverflowStrategy(
+            BackpressureOverflowStrategy eventStreamOverflowStrategy) {
+        this.eventStreamOverflowStrategy = eventStreamOverflowStrategy;
+    }
+
+    public boolean isLocalNonces() {
+        return localNonces;
+    }
+
+    public void setLocalNonces(boolean localNonces) {
+        this.localNonces = localNonces;
+    }
+
+    public long getReceiptPollInterval() {
+        return receiptPollInterval;
+    }
+
+    public void setReceiptPollInterval(long receiptPollInterval) {
+        this.receiptPollInterval = receiptPollInterval;
+    }
+
+    public long getReceiptTimeout() {
+        return receiptTimeout;
+    }
+
+    public void setReceiptTimeout(long receiptTimeout) {
+        this.receiptTimeout = receiptTimeout;
+    }
+
+    public int getHttpMaxIdleConnections() {
+        return httpMaxIdleConnections;
+    }
+
+    public void setHttpMaxIdleConnections(int httpMaxIdleConnections) {
+        this.httpMaxIdleConnections = httpMaxIdleConnections;
+    }
+
+    public long getHttpKeepAlive() {
+        return httpKeepAlive;
+    }
+
+    public void setHttpKeepAlive(long httpKeepAlive) {
+        this.httpKeepAlive = httpKeepAlive;
+    }
+
+    public int getHttpMaxRequests() {
+        return httpMaxRequests;
+    }
+
+    public void setHttpMaxRequests(int httpMaxRequests) {
+        this.httpMaxRequests = httpMaxRequests;
+    }
+
+    public int getHttpMaxRequestsPerHost() {
+        return httpMaxRequestsPerHost;
+    }
+
+    public void setHttpMaxRequestsPerHost(int httpMaxRequestsPerHost) {
+        this.httpMaxRequestsPerHost = httpMaxRequestsPerHost;
+    }
+
+    public long getHttpConnectTimeout() {
+        return httpConnectTimeout;
+    }
+
+    public void setHttpConnectTimeout(long httpConnectTimeout) {
+        this.httpConnectTimeout = httpConnectTimeout;
+    }
+
+    public long getHttpReadTimeout() {
+        return httpReadTimeout;
+    }
+
+    public void setHttpReadTimeout(long httpReadTimeout) {
+        this.httpReadTimeout = httpReadTimeout;
+    }
+
+    public long getHttpWriteTimeout() {
+        return httpWriteTimeout;
+    }
+
+    public void setHttpWriteTimeout(long httpWriteTimeout) {
+        this.httpWriteTimeout = httpWriteTimeout;
+    }
+
+    public boolean isHttpGzip() {
+        return httpGzip;
+    }
+
+    public void setHttpGzip(boolean httpGzip) {
+        this.httpGzip = httpGzip;
+    }
+
+    public List<NodeEndpoint> getNodeEndpoints() {
+        return nodeEndpoints;
+    }
+
+    public void setNodeEndpoints(List<NodeEndpoint> nodeEndpoints) {
+        this.nodeEndpoints = nodeEndpoints;
+    }
+
+    public int getNodeFailureThreshold() {
+        return nodeFailureThreshold;
+    }
+
+    public void setNodeFailureThreshold(int nodeFailureThreshold) {
+        this.nodeFailureThreshold = nodeFailureThreshold;
+    }
+
+    public long getNodeHealthCheckInterval() {
+        return nodeHealthCheckInterval;
+    }
+
+    public void setNodeHealthCheckInterval(long nodeHealthCheckInterval) {
+        this.nodeHealthCheckInterval = nodeHealthCheckInterval;
+    }
+
+    public long getWebSocketReconnectDelay() {
+        return webSocketReconnectDelay;
+    }
+
+    public void setWebSocketReconnectDelay(long webSocketReconnectDelay) {
+        this.webSocketReconnectDelay = webSocketReconnectDelay;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isCoalesceCalls() {
+        return coalesceCalls;
+    }
+
+    public void setCoalesceCalls(boolean coalesceCalls) {
+        this.coalesceCalls = coalesceCalls;
+    }
+
+    public int getHistoricalCacheSize() {
+        return historicalCacheSize;
+    }
+
+    public void setHistoricalCacheSize(int historicalCacheSize) {
+        this.historicalCacheSize = historicalCacheSize;
+    }
+
+    public int getFinalityDepth() {
+        return finalityDepth;
+    }
+
+    public void setFinalityDepth(int finalityDepth) {
+        this.finalityDepth = finalityDepth;
+    }
+
+    public String getTokenFactoryAddress() {
+        return tokenFactoryAddress;
+    }
+
+    public void setTokenFactoryAddress(String tokenFactoryAddress) {
+        this.tokenFactoryAddress = tokenFactoryAddress;
+    }
+
+    public int getTokenFactoryBatchSize() {
+        return tokenFactoryBatchSize;
+    }
+
+    public void setTokenFactoryBatchSize(int tokenFactoryBatchSize) {
+        this.tokenFactoryBatchSize = tokenFactoryBatchSize;
+    }
+
+    /**
+     * One of several nodes to spread requests across, in place of nodeEndpoint.
+     */
+    @Data
+    public static class NodeEndpoint {
+
+        public enum Role {
+            /** Serves calls and other requests that only read chain state. */
+            READ,
+            /** Holds fromAddress, so sends transactions and assigns their nonces. */
+            WRITE
+        }
+
+        private String url;
+        private Set<Role> roles = EnumSet.allOf(Role.class);
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public Set<Role> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(Set<Role> roles) {
+            this.roles = roles;
+        }
+    }
 }
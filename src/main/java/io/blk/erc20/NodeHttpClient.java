@@ -0,0 +1,121 @@
+package io.blk.erc20;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * The HTTP client shared by all requests to the node, with its connection pool, dispatcher
+ * and timeouts taken from {@link NodeConfiguration}.
+ *
+ * <p>The dispatcher limits apply to requests sent asynchronously by OkHttp itself, such as
+ * JSON-RPC batches. web3j sends individual requests synchronously, so those are only bounded
+ * by the connection pool.
+ *
+ * <p>The same usage as {@link #getStatistics()} is gauged as {@code node.http.connections} and
+ * {@code node.http.calls}, tagged with their state.
+ */
+@Component
+public class NodeHttpClient {
+
+    private final OkHttpClient client;
+
+    @Autowired
+    public NodeHttpClient(NodeConfiguration nodeConfiguration, MeterRegistry meterRegistry) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(nodeConfiguration.getHttpMaxRequests());
+        dispatcher.setMaxRequestsPerHost(nodeConfiguration.getHttpMaxRequestsPerHost());
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(
+                        nodeConfiguration.getHttpMaxIdleConnections(),
+                        nodeConfiguration.getHttpKeepAlive(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(nodeConfiguration.getHttpConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(nodeConfiguration.getHttpReadTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(nodeConfiguration.getHttpWriteTimeout(), TimeUnit.MILLISECONDS);
+        if (!nodeConfiguration.isHttpGzip()) {
+            // OkHttp asks for gzip responses unless told otherwise
+            builder.addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                    .header("Accept-Encoding", "identity")
+                    .build()));
+        }
+        this.client = builder.build();
+
+        ConnectionPool connectionPool = client.connectionPool();
+        Gauge.builder("node.http.connections", connectionPool,
+                pool -> pool.connectionCount() - pool.idleConnectionCount())
+                .tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("node.http.connections", connectionPool, ConnectionPool::idleConnectionCount)
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("node.http.calls", dispatcher, Dispatcher::runningCallsCount)
+                .tag("state", "running")
+                .register(meterRegistry);
+        Gauge.builder("node.http.calls", dispatcher, Dispatcher::queuedCallsCount)
+                .tag("state", "queued")
+                .register(meterRegistry);
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    public HttpClientStatistics getStatistics() {
+        ConnectionPool connectionPool = client.connectionPool();
+        Dispatcher dispatcher = client.dispatcher();
+        return new HttpClientStatistics(
+                connectionPool.connectionCount(),
+                connectionPool.idleConnectionCount(),
+                dispatcher.runningCallsCount(),
+                dispatcher.queuedCallsCount());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    /**
+     * Current usage of the connection pool and dispatcher.
+     */
+    public static class HttpClientStatistics {
+        private final int connections;
+        private final int idleConnections;
+        private final int runningCalls;
+        private final int queuedCalls;
+
+        HttpClientStatistics(
+                int connections, int idleConnections, int runningCalls, int queuedCalls) {
+            this.connections = connections;
+            this.idleConnections = idleConnections;
+            this.runningCalls = runningCalls;
+            this.queuedCalls = queuedCalls;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getRunningCalls() {
+            return runningCalls;
+        }
+
+        public int getQueuedCalls() {
+            return queuedCalls;
+        }
+    }
+}
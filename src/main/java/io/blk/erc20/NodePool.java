@@ -0,0 +1,538 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.blk.erc20.NodeConfiguration.NodeEndpoint.Role;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.http.HttpService;
+
+/**
+ * The nodes of {@link NodeConfiguration#getNodeEndpoints()}, and which of them each request
+ * should go to.
+ *
+ * <p>Reads are spread across the healthy read nodes at random, weighted by the inverse of
+ * their average latency times their requests in flight. Reads as of a given block only go to
+ * nodes whose head is known to be at or past it, or failing that the node furthest ahead.
+ * Writes go to the first healthy write node, as do filters since those only exist on the node
+ * they were created on, and reads of private contracts and transactions, which only the nodes
+ * party to them can answer.
+ *
+ * <p>Reads that need to agree with each other, such as a block number and the logs up to it,
+ * are sent to one node by making them while {@link #pin pinned}.
+ *
+ * <p>The health check asks every node for its head each
+ * {@link NodeConfiguration#getNodeHealthCheckInterval()}. A node is ejected after
+ * {@link NodeConfiguration#getNodeFailureThreshold()} consecutive failures, and re-admitted
+ * once it answers a health check again. If every node for a role has been ejected, requests
+ * are still sent to them rather than failed outright.
+ *
+ * <p>The requests in flight to each node and whether it's healthy are gauged as
+ * {@code node.in.flight} and {@code node.healthy}, tagged with the node's URL.
+ */
+@Component
+public class NodePool {
+
+    private static final Logger log = LoggerFactory.getLogger(NodePool.class);
+
+    private static final Set<String> WRITE_METHODS = new HashSet<>(Arrays.asList(
+            "eth_sendTransaction",
+            "eth_sendRawTransaction",
+            "eth_sendTransactionAsync",
+            "eth_sendRawPrivateTransaction",
+            "eth_getTransactionCount",
+            "eth_sign",
+            "eth_accounts",
+            "eth_coinbase",
+            "eth_newFilter",
+            "eth_newBlockFilter",
+            "eth_newPendingTransactionFilter",
+            "eth_getFilterChanges",
+            "eth_getFilterLogs",
+            "eth_uninstallFilter"));
+
+    // Smoothing of the latency average, higher values weigh recent requests more
+    private static final double LATENCY_DECAY = 0.3;
+
+    private static final double MINIMUM_LATENCY = TimeUnit.MICROSECONDS.toNanos(100);
+
+    // Private contracts and transactions sent by this service, lower case
+    private static final int MAX_PRIVATE = 100000;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    private final int failureThreshold;
+
+    private final Cache<String, Boolean> privateContracts =
+            CacheBuilder.newBuilder().maximumSize(MAX_PRIVATE).build();
+
+    private final Cache<String, Boolean> privateTransactions;
+
+    private final ThreadLocal<Pin> pins = new ThreadLocal<>();
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "node-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Autowired
+    public NodePool(
+            NodeConfiguration nodeConfiguration, NodeHttpClient nodeHttpClient,
+            MeterRegistry meterRegistry) {
+        this.failureThreshold = Math.max(1, nodeConfiguration.getNodeFailureThreshold());
+        // No longer polled for once timed out
+        this.privateTransactions = CacheBuilder.newBuilder()
+                .maximumSize(MAX_PRIVATE)
+                .expireAfterWrite(nodeConfiguration.getReceiptTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+        for (NodeConfiguration.NodeEndpoint nodeEndpoint : nodeConfiguration.getNodeEndpoints()) {
+            Node node = new Node(
+                    nodeEndpoint.getUrl(),
+                    nodeEndpoint.getRoles(),
+                    new HttpService(nodeEndpoint.getUrl(), nodeHttpClient.getClient()));
+            nodes.add(node);
+            Gauge.builder("node.in.flight", node.inFlight, AtomicInteger::get)
+                    .tag("node", node.url)
+                    .register(meterRegistry);
+            Gauge.builder("node.healthy", node, n -> n.healthy ? 1 : 0)
+                    .tag("node", node.url)
+                    .register(meterRegistry);
+        }
+        if (!nodes.isEmpty()) {
+            long interval = nodeConfiguration.getNodeHealthCheckInterval();
+            scheduler.scheduleWithFixedDelay(
+                    this::checkHealth, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return !nodes.isEmpty();
+    }
+
+    public static Role role(String method) {
+        return WRITE_METHODS.contains(method) || method.startsWith("personal_")
+                ? Role.WRITE : Role.READ;
+    }
+
+    /**
+     * The role of the node to send a request to, which for reads of private contracts and
+     * transactions is the write node that sent them.
+     */
+    public Role role(Request<?, ?> request) {
+        if (role(request.getMethod()) == Role.WRITE) {
+            return Role.WRITE;
+        }
+        for (Object param : request.getParams()) {
+            if (param instanceof String && isPrivate((String) param)
+                    || param instanceof Transaction && isPrivate(((Transaction) param).getTo())
+                    || param instanceof EthFilter
+                            && isPrivate(((EthFilter) param).getAddress())) {
+                return Role.WRITE;
+            }
+        }
+        return Role.READ;
+    }
+
+    /**
+     * The role of the node to read the given contracts or transactions from.
+     */
+    public Role readRole(Collection<String> keys) {
+        return isPrivate(keys) ? Role.WRITE : Role.READ;
+    }
+
+    /**
+     * The block a request reads as of, or null if it reads the latest state or none at all.
+     */
+    static BigInteger block(Request<?, ?> request) {
+        BigInteger result = null;
+        for (Object param : request.getParams()) {
+            BigInteger block = null;
+            if (param instanceof DefaultBlockParameter) {
+                block = blockNumber((DefaultBlockParameter) param);
+            } else if (param instanceof EthFilter) {
+                // Logs are only complete if the node has reached the last block of the range
+                block = blockNumber(((EthFilter) param).getToBlock());
+            }
+            if (block != null && (result == null || block.compareTo(result) > 0)) {
+                result = block;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remember that a contract is private, so its reads go to the write node that sent it.
+     */
+    public void privateContract(String contractAddress) {
+        if (isEnabled()) {
+            privateContracts.put(contractAddress.toLowerCase(), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Remember that a transaction is private, so its receipt is read from the write node that
+     * sent it.
+     */
+    public void privateTransaction(String transactionHash) {
+        if (isEnabled()) {
+            privateTransactions.put(transactionHash.toLowerCase(), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Send every read the current thread makes to a single node of the given role until the
+     * pin is closed. The node is chosen on the first read, so it has at least the block that
+     * read is as of. If it can't be reached, the reads fail rather than move to another node.
+     */
+    public Pin pin(Role role) {
+        Pin pin = new Pin(role, pins.get());
+        pins.set(pin);
+        return pin;
+    }
+
+    /**
+     * The node to send the requests to, as a single batch, skipping those already tried.
+     *
+     * @return the node, or null if none are left
+     */
+    public Node select(List<? extends Request<?, ?>> requests, Set<Node> tried) {
+        Role role = Role.READ;
+        BigInteger block = null;
+        for (Request<?, ?> request : requests) {
+            if (role(request) == Role.WRITE) {
+                role = Role.WRITE;
+            }
+            BigInteger requestBlock = block(request);
+            if (requestBlock != null && (block == null || requestBlock.compareTo(block) > 0)) {
+                block = requestBlock;
+            }
+        }
+
+        Pin pin = pins.get();
+        if (pin != null && (role == Role.READ || pin.role == Role.WRITE)) {
+            if (pin.node == null) {
+                pin.node = select(pin.role, tried, block);
+            }
+            return pin.node == null || tried.contains(pin.node) ? null : pin.node;
+        }
+        return select(role, tried, block);
+    }
+
+    public Node select(Request<?, ?> request, Set<Node> tried) {
+        return select(Collections.singletonList(request), tried);
+    }
+
+    /**
+     * Note a response from a node, learning its head from any block number it returns.
+     */
+    public void received(Node node, Request<?, ?> request, Response<?> response) {
+        if (response instanceof EthBlockNumber && !response.hasError()) {
+            node.head(((EthBlockNumber) response).getBlockNumber());
+        }
+    }
+
+    /**
+     * Whether a request can safely be sent again to another node after failing.
+     */
+    public static boolean isRetryable(String method) {
+        return !method.startsWith("eth_send");
+    }
+
+    private Node select(Role role, Set<Node> tried, BigInteger block) {
+        List<Node> candidates = new ArrayList<>();
+        List<Node> ejected = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.roles.contains(role) && !tried.contains(node)) {
+                (node.healthy ? candidates : ejected).add(node);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = ejected;
+        }
+        if (block != null) {
+            candidates = reached(candidates, block);
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        } else if (role == Role.WRITE || candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        // Pick at random, weighted towards nodes answering faster and with fewer requests
+        double[] weights = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1 / candidates.get(i).score();
+            total += weights[i];
+        }
+        double target = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length - 1; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(weights.length - 1);
+    }
+
+    public List<NodeStatistics> getStatistics() {
+        List<NodeStatistics> result = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            result.add(new NodeStatistics(
+                    node.url, node.roles, node.healthy, node.head,
+                    node.latency / TimeUnit.MILLISECONDS.toNanos(1),
+                    node.inFlight.get(), node.requests.get(), node.failures.get()));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void checkHealth() {
+        for (Node node : nodes) {
+            try {
+                EthBlockNumber ethBlockNumber = new Request<>(
+                        "eth_blockNumber", Collections.<String>emptyList(),
+                        node.service, EthBlockNumber.class).send();
+                if (ethBlockNumber.hasError()) {
+                    continue;
+                }
+                node.head(ethBlockNumber.getBlockNumber());
+                if (!node.healthy) {
+                    log.info("Node {} is healthy again, re-admitting it", node.url);
+                    node.consecutiveFailures.set(0);
+                    node.healthy = true;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Unable to reach node {}", node.url, e);
+            }
+        }
+    }
+
+    private boolean isPrivate(String key) {
+        return key != null && (privateContracts.getIfPresent(key.toLowerCase()) != null
+                || privateTransactions.getIfPresent(key.toLowerCase()) != null);
+    }
+
+    private boolean isPrivate(Collection<String> keys) {
+        if (keys != null) {
+            for (String key : keys) {
+                if (isPrivate(key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The nodes known to have reached a block, or failing that the one furthest ahead.
+     */
+    private static List<Node> reached(List<Node> nodes, BigInteger block) {
+        List<Node> result = new ArrayList<>();
+        Node furthest = null;
+        for (Node node : nodes) {
+            BigInteger head = node.head;
+            if (head != null && head.compareTo(block) >= 0) {
+                result.add(node);
+            } else if (head != null && (furthest == null || head.compareTo(furthest.head) > 0)) {
+                furthest = node;
+            }
+        }
+        if (result.isEmpty() && furthest != null) {
+            result.add(furthest);
+        }
+        return result.isEmpty() ? nodes : result;
+    }
+
+    private static BigInteger blockNumber(DefaultBlockParameter defaultBlockParameter) {
+        return defaultBlockParameter instanceof DefaultBlockParameterNumber
+                ? ((DefaultBlockParameterNumber) defaultBlockParameter).getBlockNumber() : null;
+    }
+
+    /**
+     * A node, along with what we know of its health.
+     */
+    public class Node {
+        private final String url;
+        private final Set<Role> roles;
+        private final HttpService service;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile boolean healthy = true;
+        // Nanoseconds, updated without synchronization as an approximation is good enough
+        private volatile double latency;
+        // The latest block the node is known to have
+        private volatile BigInteger head;
+
+        Node(String url, Set<Role> roles, HttpService service) {
+            this.url = url;
+            this.roles = roles;
+            this.service = service;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public HttpService getService() {
+            return service;
+        }
+
+        /**
+         * Record the start of a request, returning the time to pass to {@link #finished}.
+         */
+        public long started() {
+            inFlight.incrementAndGet();
+            requests.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        /**
+         * Record the end of a request, where only failures to reach the node count against it.
+         */
+        public void finished(long started, boolean reachable) {
+            inFlight.decrementAndGet();
+            if (reachable) {
+                long elapsed = System.nanoTime() - started;
+                latency = latency == 0 ? elapsed : latency + LATENCY_DECAY * (elapsed - latency);
+                consecutiveFailures.set(0);
+            } else {
+                failures.incrementAndGet();
+                if (consecutiveFailures.incrementAndGet() >= failureThreshold && healthy) {
+                    log.warn("Ejecting node {} after {} consecutive failures",
+                            url, failureThreshold);
+                    healthy = false;
+                }
+            }
+        }
+
+        private synchronized void head(BigInteger blockNumber) {
+            if (head == null || blockNumber.compareTo(head) > 0) {
+                head = blockNumber;
+            }
+        }
+
+        private double score() {
+            // Nodes yet to answer count as fast, so they are tried early on
+            return Math.max(latency, MINIMUM_LATENCY) * (inFlight.get() + 1);
+        }
+    }
+
+    /**
+     * Send every read to a single node, see {@link #pin(Role)}.
+     */
+    public class Pin implements AutoCloseable {
+        private final Role role;
+        private final Pin previous;
+        private Node node;
+
+        Pin(Role role, Pin previous) {
+            this.role = role;
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                pins.remove();
+            } else {
+                pins.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Health and load of a single node.
+     */
+    public static class NodeStatistics {
+        private final String url;
+        private final Set<Role> roles;
+        private final boolean healthy;
+        private final BigInteger head;
+        private final double latencyMillis;
+        private final int inFlight;
+        private final long requests;
+        private final long failures;
+
+        NodeStatistics(
+                String url, Set<Role> roles, boolean healthy, BigInteger head,
+                double latencyMillis, int inFlight, long requests, long failures) {
+            this.url = url;
+            this.roles = roles;
+            this.healthy = healthy;
+            this.head = head;
+            this.latencyMillis = latencyMillis;
+            this.inFlight = inFlight;
+            this.requests = requests;
+            this.failures = failures;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public Set<Role> getRoles() {
+            return roles;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public BigInteger getHead() {
+            return head;
+        }
+
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.quorum.Quorum;
+
+/**
+ * Hands out transaction nonces for each sender locally, so many transactions from one account
+ * can be in flight at once rather than waiting on the node to assign each in turn.
+ *
+ * <p>The next nonce of a sender is read from {@code eth_getTransactionCount} including pending
+ * transactions, on startup and whenever we can no longer be sure what the node holds. As sends
+ * still on their way to the node aren't counted, we never go back below a nonce already handed
+ * out. Nonces of sends the node rejected, or that failed in transit without the node counting
+ * them, are handed out again first, so no gap is left behind them.
+ */
+@Component
+public class NonceManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NonceManager.class);
+
+    private final Quorum quorum;
+
+    private final Map<String, Sender> senders = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NonceManager(Quorum quorum, NodeConfiguration nodeConfiguration) {
+        this.quorum = quorum;
+
+        String fromAddress = nodeConfiguration.getFromAddress();
+        if (nodeConfiguration.isLocalNonces() && fromAddress != null) {
+            try {
+                log.info("Next nonce of {} is {}", fromAddress, acquireAndRelease(fromAddress));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to read nonce of {}, retrying on first transaction",
+                        fromAddress, e);
+            }
+        }
+    }
+
+    public BigInteger acquire(String address) throws IOException {
+        Sender sender = senderFor(address);
+        synchronized (sender) {
+            if (sender.next == null || sender.resync) {
+                BigInteger transactionCount = transactionCount(address);
+                // Failed sends the node doesn't count never reached it
+                sender.released.addAll(sender.failed.tailSet(transactionCount));
+                sender.failed.clear();
+                // Released nonces below the count have since been used by another sender
+                sender.released.headSet(transactionCount).clear();
+                sender.next = sender.next == null
+                        ? transactionCount : sender.next.max(transactionCount);
+                rewind(sender);
+                sender.resync = false;
+            }
+            if (!sender.released.isEmpty()) {
+                return sender.released.pollFirst();
+            }
+            BigInteger nonce = sender.next;
+            sender.next = nonce.add(BigInteger.ONE);
+            return nonce;
+        }
+    }
+
+    /**
+     * Return the nonce of a transaction the node rejected, to be used again.
+     */
+    public void release(String address, BigInteger nonce) {
+        Sender sender = senderFor(address);
+        synchronized (sender) {
+            if (sender.next == null || nonce.compareTo(sender.next) >= 0) {
+                // Not handed out since we last read the nonce from the node
+                return;
+            }
+            sender.released.add(nonce);
+            rewind(sender);
+        }
+    }
+
+    /**
+     * Record the nonce of a send that failed in transit, which may or may not have reached the
+     * node. The next nonce is read from the node again, and if the node doesn't count this one
+     * it is handed out again.
+     */
+    public void failed(String address, BigInteger nonce) {
+        Sender sender = senderFor(address);
+        synchronized (sender) {
+            sender.resync = true;
+            if (sender.next != null && nonce.compareTo(sender.next) < 0) {
+                sender.failed.add(nonce);
+            }
+        }
+    }
+
+    /**
+     * Read the next nonce from the node again before handing out another, for when a send may
+     * or may not have reached it, or a nonce was used by another sender.
+     */
+    public void resync(String address) {
+        Sender sender = senderFor(address);
+        synchronized (sender) {
+            sender.resync = true;
+        }
+    }
+
+    private BigInteger acquireAndRelease(String address) throws IOException {
+        BigInteger nonce = acquire(address);
+        release(address, nonce);
+        return nonce;
+    }
+
+    private BigInteger transactionCount(String address) throws IOException {
+        EthGetTransactionCount ethGetTransactionCount = quorum.ethGetTransactionCount(
+                address, DefaultBlockParameterName.PENDING).send();
+        if (ethGetTransactionCount.hasError()) {
+            throw new IOException("Error processing request: "
+                    + ethGetTransactionCount.getError().getMessage());
+        }
+        return ethGetTransactionCount.getTransactionCount();
+    }
+
+    // Hand out the highest free nonces again by going back below them
+    private static void rewind(Sender sender) {
+        while (sender.released.remove(sender.next.subtract(BigInteger.ONE))) {
+            sender.next = sender.next.subtract(BigInteger.ONE);
+        }
+    }
+
+    private Sender senderFor(String address) {
+        return senders.computeIfAbsent(TokenEvents.normalise(address), key -> new Sender());
+    }
+
+    private static class Sender {
+        // Guarded by this, null until read from the node
+        private BigInteger next;
+        private boolean resync;
+        private final TreeSet<BigInteger> released = new TreeSet<>();
+        private final TreeSet<BigInteger> failed = new TreeSet<>();
+    }
+}
@@ -0,0 +1,110 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+
+import io.reactivex.annotations.Nullable;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.quorum.Quorum;
+import org.web3j.tx.ClientTransactionManager;
+
+/**
+ * Transaction manager for an account unlocked on the node, like Quorum's
+ * {@code ClientTransactionManager}, which sends each transaction with a nonce from the
+ * {@link NonceManager} instead of leaving the node to assign one.
+ *
+ * <p>A send rejected because another transaction took its nonce is sent again with a new one.
+ */
+public class NonceTransactionManager extends ClientTransactionManager {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Quorum quorum;
+
+    private final List<String> privateFor;
+
+    private final NonceManager nonceManager;
+
+    public NonceTransactionManager(
+            Quorum quorum, String fromAddress, @Nullable List<String> privateFor,
+            NonceManager nonceManager) {
+        super(quorum, fromAddress);
+        this.quorum = quorum;
+        this.privateFor = privateFor;
+        this.nonceManager = nonceManager;
+    }
+
+    @Override
+    public EthSendTransaction sendTransaction(
+            BigInteger gasPrice, BigInteger gasLimit, String to, String data, BigInteger value,
+            boolean constructor) throws IOException {
+        String fromAddress = getFromAddress();
+        for (int attempt = 1; ; attempt++) {
+            BigInteger nonce = nonceManager.acquire(fromAddress);
+
+            Transaction transaction = privateFor == null
+                    ? new Transaction(fromAddress, nonce, gasPrice, gasLimit, to, value, data)
+                    : new PrivateTransaction(
+                            fromAddress, nonce, gasLimit, to, value, data, privateFor);
+
+            EthSendTransaction ethSendTransaction;
+            try {
+                ethSendTransaction = quorum.ethSendTransaction(transaction).send();
+            } catch (IOException | RuntimeException e) {
+                // The node may have accepted the transaction before the failure
+                nonceManager.failed(fromAddress, nonce);
+                throw e;
+            }
+
+            if (ethSendTransaction.hasError()) {
+                String message = ethSendTransaction.getError().getMessage();
+                if (isNonceTaken(message)) {
+                    nonceManager.resync(fromAddress);
+                    if (attempt < MAX_ATTEMPTS) {
+                        continue;
+                    }
+                } else if (isKnownTransaction(message)) {
+                    // This transaction already reached the node, so mustn't be sent again
+                    nonceManager.resync(fromAddress);
+                } else {
+                    nonceManager.release(fromAddress, nonce);
+                }
+            }
+            return ethSendTransaction;
+        }
+    }
+
+    // Another transaction holds the nonce
+    private static boolean isNonceTaken(String message) {
+        String lowerCase = message == null ? "" : message.toLowerCase();
+        return lowerCase.contains("nonce too low")
+                || lowerCase.contains("replacement transaction underpriced");
+    }
+
+    private static boolean isKnownTransaction(String message) {
+        String lowerCase = message == null ? "" : message.toLowerCase();
+        return lowerCase.contains("known transaction")
+                || lowerCase.contains("already known");
+    }
+
+    /**
+     * Quorum's private transaction fields on top of a regular transaction, with the gas price
+     * left out as Quorum does.
+     */
+    static class PrivateTransaction extends Transaction {
+        private final List<String> privateFor;
+
+        PrivateTransaction(
+                String from, BigInteger nonce, BigInteger gasLimit, String to,
+                BigInteger value, String data, List<String> privateFor) {
+            super(from, nonce, null, gasLimit, to, value, data);
+            this.privateFor = privateFor;
+        }
+
+        public List<String> getPrivateFor() {
+            return privateFor;
+        }
+    }
+}
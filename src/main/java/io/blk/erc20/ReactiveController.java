@@ -0,0 +1,323 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import io.reactivex.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The same API as {@link Controller}, served by WebFlux on Netty when the service is run with
+ * {@code spring.main.web-application-type=reactive}.
+ *
+ * <p>Every endpoint returns a {@link Mono} or {@link Flux}, completed as the node replies and
+ * without holding a thread meanwhile. Calls to the node block until it replies unless
+ * {@link NodeConfiguration#isAsyncRequests()} is enabled, so are otherwise moved off the event
+ * loop, as are reads of the {@link EventIndex} from disk. Event streams follow the demand of
+ * each client, buffering for slow clients as in {@link EventStreams}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveController {
+
+    private final ContractService contractService;
+
+    private final EventIndex eventIndex;
+
+    private final EventStreams eventStreams;
+
+    private final NodeHttpClient nodeHttpClient;
+
+    private final NodePool nodePool;
+
+    private final NodeConfiguration nodeConfiguration;
+
+    @Autowired
+    public ReactiveController(
+            ContractService contractService, EventIndex eventIndex, EventStreams eventStreams,
+            NodeHttpClient nodeHttpClient, NodePool nodePool,
+            NodeConfiguration nodeConfiguration) {
+        this.contractService = contractService;
+        this.eventIndex = eventIndex;
+        this.eventStreams = eventStreams;
+        this.nodeHttpClient = nodeHttpClient;
+        this.nodePool = nodePool;
+        this.nodeConfiguration = nodeConfiguration;
+    }
+
+    @RequestMapping(value = "/config", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    Mono<NodeConfiguration> config() {
+        return Mono.just(contractService.getConfig());
+    }
+
+    @RequestMapping(value = "/stats/contracts", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    Flux<ContractCache.ContractStatistics> contractStatistics() {
+        return Flux.fromIterable(contractService.contractCacheStatistics());
+    }
+
+    @RequestMapping(value = "/stats/calls", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    Mono<CallCoalescer.CallStatistics> callStatistics() {
+        return Mono.fromSupplier(contractService::callStatistics);
+    }
+
+    @RequestMapping(value = "/stats/http", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    Mono<NodeHttpClient.HttpClientStatistics> httpStatistics() {
+        return Mono.fromSupplier(nodeHttpClient::getStatistics);
+    }
+
+    @RequestMapping(value = "/stats/nodes", method = RequestMethod.GET,
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    Flux<NodePool.NodeStatistics> nodeStatistics() {
+        return Flux.fromIterable(nodePool.getStatistics());
+    }
+
+    @RequestMapping(value = "/deploy", method = RequestMethod.POST)
+    Mono<String> deploy(
+            @RequestHeader(value = "privateFor", required = false) String privateFor,
+            @RequestBody Controller.ContractSpecification contractSpecification) {
+        return call(() -> contractService.deploy(
+                extractPrivateFor(privateFor),
+                contractSpecification.getInitialAmount(),
+                contractSpecification.getTokenName(),
+                contractSpecification.getDecimalUnits(),
+                contractSpecification.getTokenSymbol()));
+    }
+
+    @RequestMapping(value = "/deploy/batch", method = RequestMethod.POST)
+    Mono<List<String>> deployBatch(
+            @RequestHeader(value = "privateFor", required = false) String privateFor,
+            @RequestBody List<Controller.ContractSpecification> contractSpecifications) {
+        Controller.validateBatch(
+                contractSpecifications, nodeConfiguration.getTokenFactoryBatchSize());
+        return call(() -> contractService.deployBatch(
+                extractPrivateFor(privateFor),
+                Controller.map(contractSpecifications,
+                        Controller.ContractSpecification::getInitialAmount),
+                Controller.map(contractSpecifications,
+                        Controller.ContractSpecification::getTokenName),
+                Controller.map(contractSpecifications,
+                        Controller.ContractSpecification::getDecimalUnits),
+                Controller.map(contractSpecifications,
+                        Controller.ContractSpecification::getTokenSymbol)));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/name", method = RequestMethod.GET)
+    Mono<String> name(@PathVariable String contractAddress) {
+        return call(() -> contractService.name(contractAddress));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/approve", method = RequestMethod.POST)
+    Mono<TransactionResponse<ContractService.ApprovalEventResponse>> approve(
+            @RequestHeader(value = "privateFor", required = false) String privateFor,
+            @PathVariable String contractAddress,
+            @RequestBody Controller.ApproveRequest approveRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
+        return call(() -> contractService.approve(
+                extractPrivateFor(privateFor),
+                contractAddress,
+                approveRequest.getSpender(),
+                approveRequest.getValue(),
+                waitForReceipt));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/totalSupply", method = RequestMethod.GET)
+    Mono<String> totalSupply(
+            @PathVariable String contractAddress,
+            @RequestParam(required = false) BigInteger block) {
+        return call(() -> contractService.totalSupply(contractAddress, block));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/transferFrom", method = RequestMethod.POST)
+    Mono<TransactionResponse<ContractService.TransferEventResponse>> transferFrom(
+            @RequestHeader(value = "privateFor", required = false) String privateFor,
+            @PathVariable String contractAddress,
+            @RequestBody Controller.TransferFromRequest transferFromRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
+        return call(() -> contractService.transferFrom(
+                extractPrivateFor(privateFor),
+                contractAddress,
+                transferFromRequest.getFrom(),
+                transferFromRequest.getTo(),
+                transferFromRequest.getValue(),
+                waitForReceipt));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/decimals", method = RequestMethod.GET)
+    Mono<String> decimals(@PathVariable String contractAddress) {
+        return call(() -> contractService.decimals(contractAddress));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/version", method = RequestMethod.GET)
+    Mono<String> version(@PathVariable String contractAddress) {
+        return call(() -> contractService.version(contractAddress));
+    }
+
+    @RequestMapping(
+            value = "/{contractAddress}/balanceOf/{ownerAddress}", method = RequestMethod.GET)
+    Mono<String> balanceOf(
+            @PathVariable String contractAddress,
+            @PathVariable String ownerAddress,
+            @RequestParam(required = false) BigInteger block) {
+        return call(() -> contractService.balanceOf(contractAddress, ownerAddress, block));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/balances", method = RequestMethod.POST)
+    Mono<Map<String, String>> balances(
+            @PathVariable String contractAddress,
+            @RequestBody List<String> ownerAddresses) {
+        return call(() -> contractService.balances(contractAddress, ownerAddresses));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/summary", method = RequestMethod.GET)
+    Mono<TokenSummary> summary(@PathVariable String contractAddress) {
+        return call(() -> contractService.summary(contractAddress));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/symbol", method = RequestMethod.GET)
+    Mono<String> symbol(@PathVariable String contractAddress) {
+        return call(() -> contractService.symbol(contractAddress));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/transfer", method = RequestMethod.POST)
+    Mono<TransactionResponse<ContractService.TransferEventResponse>> transfer(
+            @RequestHeader(value = "privateFor", required = false) String privateFor,
+            @PathVariable String contractAddress,
+            @RequestBody Controller.TransferRequest transferRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
+        return call(() -> contractService.transfer(
+                extractPrivateFor(privateFor),
+                contractAddress,
+                transferRequest.getTo(),
+                transferRequest.getValue(),
+                waitForReceipt));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/transfers", method = RequestMethod.POST)
+    Flux<TransferResult> transfers(
+            @RequestHeader(value = "privateFor", required = false) String privateFor,
+            @PathVariable String contractAddress,
+            @RequestBody List<Controller.TransferFromRequest> transferRequests,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
+        List<ContractService.Transfer> transfers = new ArrayList<>(transferRequests.size());
+        for (Controller.TransferFromRequest transferRequest : transferRequests) {
+            transfers.add(new ContractService.Transfer(
+                    transferRequest.getFrom(),
+                    transferRequest.getTo(),
+                    transferRequest.getValue()));
+        }
+        return call(() -> contractService.transfers(
+                extractPrivateFor(privateFor), contractAddress, transfers, waitForReceipt))
+                .flatMapIterable(results -> results);
+    }
+
+    @RequestMapping(value = "/{contractAddress}/approveAndCall", method = RequestMethod.POST)
+    Mono<TransactionResponse<ContractService.ApprovalEventResponse>> approveAndCall(
+            @RequestHeader(value = "privateFor", required = false) String privateFor,
+            @PathVariable String contractAddress,
+            @RequestBody Controller.ApproveAndCallRequest approveAndCallRequest,
+            @RequestParam(defaultValue = "true") boolean waitForReceipt) {
+        return call(() -> contractService.approveAndCall(
+                extractPrivateFor(privateFor),
+                contractAddress,
+                approveAndCallRequest.getSpender(),
+                approveAndCallRequest.getValue(),
+                approveAndCallRequest.getExtraData(),
+                waitForReceipt));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/allowance", method = RequestMethod.GET)
+    Mono<String> allowance(
+            @PathVariable String contractAddress,
+            @RequestParam String ownerAddress,
+            @RequestParam String spenderAddress,
+            @RequestParam(required = false) BigInteger block) {
+        return call(() -> contractService.allowance(
+                contractAddress, ownerAddress, spenderAddress, block));
+    }
+
+    @RequestMapping(value = "/transactions/{transactionHash}", method = RequestMethod.GET)
+    Mono<TransactionStatus> transactionStatus(@PathVariable String transactionHash) {
+        return call(() -> contractService.transactionStatus(transactionHash));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/events/index", method = RequestMethod.POST)
+    Mono<EventIndex.IndexStatus> registerEventIndex(@PathVariable String contractAddress) {
+        Controller.validateAddress(contractAddress);
+        return blocking(() -> eventIndex.register(contractAddress));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/events/index", method = RequestMethod.GET)
+    Mono<EventIndex.IndexStatus> eventIndexStatus(@PathVariable String contractAddress) {
+        return blocking(() -> eventIndex.status(contractAddress));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/events", method = RequestMethod.GET)
+    Mono<EventIndex.EventPage> events(
+            @PathVariable String contractAddress,
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) BigInteger fromBlock,
+            @RequestParam(required = false) BigInteger toBlock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        return blocking(() -> eventIndex.events(
+                contractAddress, address, fromBlock, toBlock, page, size));
+    }
+
+    @RequestMapping(value = "/{contractAddress}/events/stream", method = RequestMethod.GET,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<IndexedEvent>> eventStream(@PathVariable String contractAddress) {
+        // The writer's own prefetch would otherwise hold events beyond eventStreamBufferSize
+        return Flux.from(eventStreams.logs(contractAddress))
+                .limitRate(1)
+                .handle((tokenLog, sink) -> {
+                    IndexedEvent event = IndexedEvent.fromLog(tokenLog);
+                    if (event != null) {
+                        sink.next(ServerSentEvent.builder(event)
+                                .id(event.getTransactionHash() + ":" + event.getLogIndex())
+                                .event(event.getType().getEventName())
+                                .build());
+                    }
+                });
+    }
+
+    private <T> Mono<T> call(Supplier<CompletableFuture<T>> call) {
+        Mono<T> result = Mono.defer(() -> Mono.fromFuture(call.get()));
+        return nodeConfiguration.isAsyncRequests()
+                ? result : result.subscribeOn(Schedulers.elastic());
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(Schedulers.elastic());
+    }
+
+    private static @Nullable List<String> extractPrivateFor(@Nullable String privateFor) {
+        if (privateFor == null) {
+            return null;
+        } else {
+            return Arrays.asList(privateFor.split(","));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.quorum.Quorum;
+
+/**
+ * Waits for the receipts of submitted transactions, replacing the polling loop web3j runs for
+ * each transaction with one shared poller.
+ *
+ * <p>Every {@link NodeConfiguration#getReceiptPollInterval()} the poller checks for a new block,
+ * and if there is one fetches the receipts of all pending transactions in JSON-RPC batches.
+ * Transactions without a receipt after {@link NodeConfiguration#getReceiptTimeout()} fail.
+ * When the node pushes new heads, receipts are also fetched as soon as each new block arrives.
+ * Each poll reads the block number and receipts from the same node, so a receipt missing from
+ * a node behind isn't taken as not mined by the head of another.
+ *
+ * <p>The wait for each receipt is timed as {@code transactions.receipt.wait}, tagged with
+ * whether the transaction succeeded, reverted or timed out, and the transactions still waiting
+ * are gauged as {@code transactions.pending}.
+ */
+@Component
+public class ReceiptTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptTracker.class);
+
+    private final Quorum quorum;
+
+    private final JsonRpcBatch jsonRpcBatch;
+
+    private final BlockHeads blockHeads;
+
+    private final NodePool nodePool;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int batchSize;
+
+    private final long timeout;
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "receipt-tracker");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Disposable headsSubscription;
+
+    @Autowired
+    public ReceiptTracker(
+            Quorum quorum, JsonRpcBatch jsonRpcBatch, BlockHeads blockHeads, NodePool nodePool,
+            MeterRegistry meterRegistry, NodeConfiguration nodeConfiguration) {
+        this.quorum = quorum;
+        this.jsonRpcBatch = jsonRpcBatch;
+        this.blockHeads = blockHeads;
+        this.nodePool = nodePool;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("transactions.pending", pending, Map::size)
+                .description("Submitted transactions waiting for their receipt")
+                .register(meterRegistry);
+        this.batchSize = Math.max(1, nodeConfiguration.getBatchSize());
+        this.timeout = nodeConfiguration.getReceiptTimeout();
+        long interval = nodeConfiguration.getReceiptPollInterval();
+        scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        this.headsSubscription =
+                blockHeads.heads().subscribe(head -> scheduler.execute(this::poll));
+    }
+
+    /**
+     * The receipt of a transaction, once it has been mined.
+     */
+    public CompletableFuture<TransactionReceipt> receipt(String transactionHash) {
+        return pending.computeIfAbsent(
+                transactionHash, key -> new Pending(Timer.start(meterRegistry))).future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        headsSubscription.dispose();
+        scheduler.shutdownNow();
+    }
+
+    private void poll() {
+        try (NodePool.Pin pin = nodePool.pin(nodePool.readRole(pending.keySet()))) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            BigInteger head = blockHeads.latest();
+
+            // Receipts only appear with new blocks, so skip those already checked at the head
+            long now = System.currentTimeMillis();
+            List<String> transactionHashes = new ArrayList<>();
+            for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+                Pending transaction = entry.getValue();
+                if (now - transaction.submitted > timeout) {
+                    pending.remove(entry.getKey());
+                    transaction.sample.stop(timer("timeout"));
+                    transaction.future.completeExceptionally(new TransactionException(
+                            "Transaction receipt was not generated after "
+                                    + (timeout / 1000) + " seconds for transaction: "
+                                    + entry.getKey()));
+                } else if (transaction.checkedBlock == null
+                        || head.compareTo(transaction.checkedBlock) > 0) {
+                    transactionHashes.add(entry.getKey());
+                }
+            }
+
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int i = 0; i < transactionHashes.size(); i += batchSize) {
+                List<String> batch = transactionHashes.subList(
+                        i, Math.min(i + batchSize, transactionHashes.size()));
+                batches.add(fetch(batch, head));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            log.warn("Unable to poll for transaction receipts, retrying on next poll", e);
+        }
+    }
+
+    private CompletableFuture<Void> fetch(List<String> transactionHashes, BigInteger head) {
+        List<Request<?, EthGetTransactionReceipt>> requests =
+                new ArrayList<>(transactionHashes.size());
+        for (String transactionHash : transactionHashes) {
+            requests.add(quorum.ethGetTransactionReceipt(transactionHash));
+        }
+
+        return jsonRpcBatch.sendAsync(requests, EthGetTransactionReceipt.class)
+                .thenAccept(responses -> {
+                    for (int i = 0; i < responses.size(); i++) {
+                        String transactionHash = transactionHashes.get(i);
+                        EthGetTransactionReceipt response = responses.get(i);
+                        if (response.hasError()) {
+                            log.warn("Error retrieving transaction receipt of {}: {}",
+                                    transactionHash, response.getError().getMessage());
+                            continue;
+                        }
+
+                        Optional<TransactionReceipt> transactionReceipt =
+                                response.getTransactionReceipt();
+                        Pending transaction = pending.get(transactionHash);
+                        if (transaction == null) {
+                            continue;
+                        } else if (transactionReceipt.isPresent()) {
+                            TransactionReceipt receipt = transactionReceipt.get();
+                            pending.remove(transactionHash);
+                            transaction.sample.stop(
+                                    timer(receipt.isStatusOK() ? "success" : "reverted"));
+                            transaction.future.complete(receipt);
+                        } else {
+                            transaction.checkedBlock = head;
+                        }
+                    }
+                });
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder("transactions.receipt.wait")
+                .description("Time from submitting a transaction to receiving its receipt")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static class Pending {
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        private final long submitted = System.currentTimeMillis();
+        private final Timer.Sample sample;
+        // The latest block we know the transaction wasn't mined by
+        private volatile BigInteger checkedBlock;
+
+        Pending(Timer.Sample sample) {
+            this.sample = sample;
+        }
+    }
+}
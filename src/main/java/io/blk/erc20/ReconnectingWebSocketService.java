@@ -0,0 +1,193 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.BehaviorProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.WebSocketClient;
+import org.web3j.protocol.websocket.WebSocketService;
+import org.web3j.protocol.websocket.events.Notification;
+
+/**
+ * A WebSocket connection to the node which reconnects whenever it is lost, and resubscribes
+ * every {@code eth_subscribe} subscription once it is back.
+ *
+ * <p>Each connection gets its own {@link WebSocketService}, so nothing of a lost connection
+ * carries over to the next. The first connection is made in the background like any other, so
+ * the node needn't be up when the service starts. Reconnection attempts back off from
+ * {@link NodeConfiguration#getWebSocketReconnectDelay()} up to a minute, and requests sent
+ * while disconnected fail as they would over HTTP.
+ */
+public class ReconnectingWebSocketService implements Web3jService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconnectingWebSocketService.class);
+
+    private static final long MAX_RECONNECT_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    private final URI uri;
+
+    private final long reconnectDelay;
+
+    private final BehaviorProcessor<Boolean> connected = BehaviorProcessor.createDefault(false);
+
+    private final ScheduledExecutorService reconnector =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "websocket-reconnect");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private volatile WebSocketService current;
+
+    private volatile boolean closed;
+
+    public ReconnectingWebSocketService(String url, long reconnectDelay) {
+        this.uri = URI.create(url);
+        this.reconnectDelay = Math.max(1, reconnectDelay);
+    }
+
+    public static boolean isWebSocket(String url) {
+        return url != null && (url.startsWith("ws://") || url.startsWith("wss://"));
+    }
+
+    /**
+     * Start connecting in the background, retrying until connected and after any connection is
+     * lost.
+     */
+    public void connect() {
+        reconnector.execute(() -> reconnect(reconnectDelay));
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType)
+            throws IOException {
+        return connection().send(request, responseType);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(
+            Request request, Class<T> responseType) {
+        try {
+            return connection().sendAsync(request, responseType);
+        } catch (IOException e) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        // Detached once failed, so a lost subscription isn't unsubscribed over a closed connection
+        return Flowable.defer(() -> connection()
+                        .subscribe(request, unsubscribeMethod, responseType)
+                        .onTerminateDetach())
+                .retryWhen(errors -> errors.flatMap(error -> {
+                    if (closed) {
+                        return Flowable.error(error);
+                    }
+                    log.debug("Subscription {} lost, resubscribing once connected",
+                            request.getMethod(), error);
+                    // Delayed so a subscription the node rejects isn't retried in a tight loop
+                    return connected.filter(Boolean::booleanValue)
+                            .take(1)
+                            .delay(reconnectDelay, TimeUnit.MILLISECONDS);
+                }));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        reconnector.shutdownNow();
+        WebSocketService service = current;
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    private WebSocketService connection() throws IOException {
+        WebSocketService service = current;
+        if (service == null || !connected.getValue()) {
+            throw new ConnectException("Not connected to " + uri + ", reconnecting");
+        }
+        return service;
+    }
+
+    private void open() throws ConnectException {
+        Client client = new Client(uri);
+        WebSocketService service = new WebSocketService(client, false);
+        client.service = service;
+        try {
+            service.connect();
+            if (!client.isOpen()) {
+                throw new ConnectException("Unable to connect to " + uri);
+            }
+        } catch (ConnectException | RuntimeException e) {
+            service.close();
+            throw e;
+        }
+        current = service;
+        connected.onNext(true);
+        if (!client.isOpen()) {
+            // Lost before it became current, so its close was ignored
+            lost(service);
+        }
+    }
+
+    private void lost(WebSocketService service) {
+        if (closed || service != current) {
+            return;
+        }
+        log.warn("WebSocket connection to {} lost, reconnecting", uri);
+        connected.onNext(false);
+        // Reconnecting blocks, so can't be done on the thread of the lost connection
+        reconnector.execute(() -> {
+            service.close();
+            reconnect(reconnectDelay);
+        });
+    }
+
+    private void reconnect(long delay) {
+        try {
+            open();
+            log.info("WebSocket connection to {} established", uri);
+            return;
+        } catch (ConnectException | RuntimeException e) {
+            log.debug("Unable to reconnect to {}", uri, e);
+        }
+        if (!closed) {
+            reconnector.schedule(
+                    () -> reconnect(Math.min(delay * 2, MAX_RECONNECT_DELAY)),
+                    delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private class Client extends WebSocketClient {
+        private volatile WebSocketService service;
+
+        Client(URI uri) {
+            super(uri);
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+            // Lost before the service fails its subscriptions, so they wait to resubscribe
+            if (service != null) {
+                lost(service);
+            }
+            super.onClose(code, reason, remote);
+        }
+    }
+}
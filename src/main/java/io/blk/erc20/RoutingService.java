@@ -0,0 +1,79 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import io.reactivex.Flowable;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+/**
+ * Sends each request to a node of the {@link NodePool} chosen by its method, the block and
+ * contract it reads, retrying requests that are safe to repeat on another node if the first
+ * can't be reached.
+ */
+public class RoutingService implements Web3jService {
+
+    private final NodePool nodePool;
+
+    public RoutingService(NodePool nodePool) {
+        this.nodePool = nodePool;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType)
+            throws IOException {
+        Set<NodePool.Node> tried = new HashSet<>();
+        return send(request, responseType, nodePool.select(request, tried), tried);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(
+            Request request, Class<T> responseType) {
+        // Chosen on the caller's thread, so that a pin it holds applies
+        Set<NodePool.Node> tried = new HashSet<>();
+        NodePool.Node node = nodePool.select(request, tried);
+        return Async.run(() -> send(request, responseType, node, tried));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        throw new UnsupportedOperationException("Subscriptions are not supported over HTTP");
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The node services share the client owned by NodeHttpClient
+    }
+
+    private <T extends Response> T send(
+            Request request, Class<T> responseType, NodePool.Node node, Set<NodePool.Node> tried)
+            throws IOException {
+        while (true) {
+            long started = node.started();
+            T response;
+            try {
+                response = node.getService().send(request, responseType);
+            } catch (IOException | RuntimeException e) {
+                // Including responses that can't be read, so every request is finished
+                node.finished(started, false);
+                tried.add(node);
+                node = NodePool.isRetryable(request.getMethod())
+                        ? nodePool.select(request, tried) : null;
+                if (node == null) {
+                    throw e;
+                }
+                continue;
+            }
+            node.finished(started, true);
+            nodePool.received(node, request, response);
+            return response;
+        }
+    }
+}
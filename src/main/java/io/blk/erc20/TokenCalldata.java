@@ -0,0 +1,196 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+
+/**
+ * Calldata of the fixed-layout {@link HumanStandardToken} functions, written straight into a
+ * reused buffer rather than built from {@link Function}s and their ABI types, along with the
+ * decoding of their {@code uint256} results.
+ *
+ * <p>Each call is a 4 byte selector followed by 32 byte words, so only addresses given as 40
+ * hex digits and values between 0 and 2<sup>256</sup> - 1 are written here. Anything else goes
+ * through {@link FunctionEncoder} and {@link FunctionReturnDecoder} as before, so the result,
+ * or the error, is always the same as theirs.
+ */
+final class TokenCalldata {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int WORD = 64;
+
+    private static final int MAX_WORDS = 3;
+
+    private static final String BALANCE_OF = selector(TokenFunctions.balanceOf(zeros(40)));
+
+    private static final String ALLOWANCE =
+            selector(TokenFunctions.allowance(zeros(40), zeros(40)));
+
+    private static final String TRANSFER =
+            selector(TokenFunctions.transfer(zeros(40), BigInteger.ZERO));
+
+    private static final String TRANSFER_FROM =
+            selector(TokenFunctions.transferFrom(zeros(40), zeros(40), BigInteger.ZERO));
+
+    private static final String APPROVE =
+            selector(TokenFunctions.approve(zeros(40), BigInteger.ZERO));
+
+    static final String TOTAL_SUPPLY = FunctionEncoder.encode(TokenFunctions.totalSupply());
+
+    private static final ThreadLocal<char[]> BUFFER =
+            ThreadLocal.withInitial(() -> new char[10 + MAX_WORDS * WORD]);
+
+    private TokenCalldata() { }
+
+    static String balanceOf(String owner) {
+        char[] buffer = start(BALANCE_OF);
+        if (!address(buffer, 0, owner)) {
+            return FunctionEncoder.encode(TokenFunctions.balanceOf(owner));
+        }
+        return finish(buffer, 1);
+    }
+
+    static String allowance(String owner, String spender) {
+        char[] buffer = start(ALLOWANCE);
+        if (!address(buffer, 0, owner) || !address(buffer, 1, spender)) {
+            return FunctionEncoder.encode(TokenFunctions.allowance(owner, spender));
+        }
+        return finish(buffer, 2);
+    }
+
+    static String transfer(String to, BigInteger value) {
+        char[] buffer = start(TRANSFER);
+        if (!address(buffer, 0, to) || !uint256(buffer, 1, value)) {
+            return FunctionEncoder.encode(TokenFunctions.transfer(to, value));
+        }
+        return finish(buffer, 2);
+    }
+
+    static String transferFrom(String from, String to, BigInteger value) {
+        char[] buffer = start(TRANSFER_FROM);
+        if (!address(buffer, 0, from) || !address(buffer, 1, to)
+                || !uint256(buffer, 2, value)) {
+            return FunctionEncoder.encode(TokenFunctions.transferFrom(from, to, value));
+        }
+        return finish(buffer, 3);
+    }
+
+    static String approve(String spender, BigInteger value) {
+        char[] buffer = start(APPROVE);
+        if (!address(buffer, 0, spender) || !uint256(buffer, 1, value)) {
+            return FunctionEncoder.encode(TokenFunctions.approve(spender, value));
+        }
+        return finish(buffer, 2);
+    }
+
+    /**
+     * The {@code uint256} returned by a call, or null if nothing was returned.
+     */
+    static BigInteger decodeUint256(String value) {
+        int offset = value != null && value.startsWith("0x") ? 2 : 0;
+        if (value == null || value.length() - offset < WORD || !isHex(value, offset, WORD)) {
+            List<Type> values = FunctionReturnDecoder.decode(
+                    value, TokenFunctions.totalSupply().getOutputParameters());
+            return values.isEmpty() ? null : (BigInteger) values.get(0).getValue();
+        }
+
+        // Most values fit in a long, parsed without any intermediate string
+        int end = offset + WORD;
+        int start = offset;
+        while (start < end - 1 && value.charAt(start) == '0') {
+            start++;
+        }
+        if (end - start < 16) {
+            long result = 0;
+            for (int i = start; i < end; i++) {
+                result = (result << 4) | hexDigit(value.charAt(i));
+            }
+            return BigInteger.valueOf(result);
+        }
+        return new BigInteger(value.substring(start, end), 16);
+    }
+
+    private static char[] start(String selector) {
+        char[] buffer = BUFFER.get();
+        selector.getChars(0, selector.length(), buffer, 0);
+        return buffer;
+    }
+
+    private static String finish(char[] buffer, int words) {
+        return new String(buffer, 0, 10 + words * WORD);
+    }
+
+    private static boolean address(char[] buffer, int word, String address) {
+        if (address == null) {
+            return false;
+        }
+        int offset = address.startsWith("0x") ? 2 : 0;
+        if (address.length() - offset != 40 || !isHex(address, offset, 40)) {
+            return false;
+        }
+        int position = 10 + word * WORD;
+        for (int i = 0; i < WORD - 40; i++) {
+            buffer[position++] = '0';
+        }
+        for (int i = offset; i < address.length(); i++) {
+            buffer[position++] = Character.toLowerCase(address.charAt(i));
+        }
+        return true;
+    }
+
+    private static boolean uint256(char[] buffer, int word, BigInteger value) {
+        if (value == null || value.signum() < 0 || value.bitLength() > 256) {
+            return false;
+        }
+        int position = 10 + word * WORD;
+        if (value.bitLength() < 64) {
+            long remaining = value.longValue();
+            for (int i = position + WORD - 1; i >= position; i--) {
+                buffer[i] = HEX[(int) (remaining & 0xf)];
+                remaining >>>= 4;
+            }
+        } else {
+            String hex = value.toString(16);
+            int padding = WORD - hex.length();
+            for (int i = 0; i < padding; i++) {
+                buffer[position + i] = '0';
+            }
+            hex.getChars(0, hex.length(), buffer, position + padding);
+        }
+        return true;
+    }
+
+    private static boolean isHex(String value, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (hexDigit(value.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static String selector(Function function) {
+        return FunctionEncoder.encode(function).substring(0, 10);
+    }
+
+    private static String zeros(int length) {
+        return new String(new char[length]).replace('\0', '0');
+    }
+}
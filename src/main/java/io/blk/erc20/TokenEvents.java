@@ -0,0 +1,188 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.abi.EventEncoder;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.quorum.Quorum;
+import org.web3j.utils.Numeric;
+
+/**
+ * Follows new Transfer and Approval logs of the tokens that currently have subscribers.
+ *
+ * <p>A single poller fetches the logs for every followed token with one {@code eth_getLogs}
+ * call per {@link NodeConfiguration#getEventPollInterval()}, so subscribers to the same token
+ * share one upstream query rather than installing a node filter each. When the node pushes
+ * new heads, the logs are also fetched as soon as each new block arrives. Each poll reads the
+ * block number and logs from the same node.
+ */
+@Component
+public class TokenEvents {
+
+    static final String TRANSFER_TOPIC = EventEncoder.encode(HumanStandardToken.TRANSFER_EVENT);
+
+    static final String APPROVAL_TOPIC = EventEncoder.encode(HumanStandardToken.APPROVAL_EVENT);
+
+    private static final Logger log = LoggerFactory.getLogger(TokenEvents.class);
+
+    private final Quorum quorum;
+
+    private final BlockHeads blockHeads;
+
+    private final NodePool nodePool;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "token-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Disposable headsSubscription;
+
+    // Only accessed from the scheduler thread
+    private BigInteger lastBlock;
+
+    @Autowired
+    public TokenEvents(
+            Quorum quorum, BlockHeads blockHeads, NodePool nodePool,
+            NodeConfiguration nodeConfiguration) {
+        this.quorum = quorum;
+        this.blockHeads = blockHeads;
+        this.nodePool = nodePool;
+        long interval = nodeConfiguration.getEventPollInterval();
+        scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        this.headsSubscription =
+                blockHeads.heads().subscribe(head -> scheduler.execute(this::poll));
+    }
+
+    /**
+     * New Transfer and Approval logs of a token, from the next poll onwards.
+     *
+     * <p>Logs are published without backpressure, so subscribers which may fall behind need to
+     * buffer or drop them.
+     */
+    public Flowable<Log> logs(String contractAddress) {
+        String key = normalise(contractAddress);
+        return Flowable.defer(() -> {
+            Topic topic = topics.compute(key, (k, existing) -> {
+                Topic result = existing == null ? new Topic() : existing;
+                result.subscribers++;
+                return result;
+            });
+            return topic.processor.doFinally(() -> unsubscribed(key, topic));
+        });
+    }
+
+    /**
+     * The latest block up to which all logs of a token have been published, or null if the
+     * token is not being followed yet.
+     *
+     * <p>Any change to the token after this block will still be published to subscribers.
+     */
+    public BigInteger coveredBlock(String contractAddress) {
+        Topic topic = topics.get(normalise(contractAddress));
+        return topic == null ? null : topic.coveredBlock;
+    }
+
+    /**
+     * Stop following a token once it has no subscribers left.
+     */
+    private void unsubscribed(String contractAddress, Topic topic) {
+        topics.computeIfPresent(contractAddress,
+                (key, existing) -> existing != topic || --existing.subscribers > 0
+                        ? existing : null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        headsSubscription.dispose();
+        scheduler.shutdownNow();
+    }
+
+    private void poll() {
+        try {
+            // Topics followed from now on are only covered by the next poll
+            Map<String, Topic> followed = new HashMap<>(topics);
+            List<String> addresses = new ArrayList<>(followed.keySet());
+            if (addresses.isEmpty()) {
+                lastBlock = null;
+                return;
+            }
+
+            // A node behind the one giving the head would leave out logs of the blocks it lacks
+            try (NodePool.Pin pin = nodePool.pin(nodePool.readRole(addresses))) {
+                BigInteger head = blockHeads.latest();
+                if (lastBlock != null && head.compareTo(lastBlock) > 0) {
+                    publish(addresses, lastBlock.add(BigInteger.ONE), head);
+                }
+                if (lastBlock == null || head.compareTo(lastBlock) > 0) {
+                    lastBlock = head;
+                }
+            }
+
+            // Anything after this block will be picked up by the next poll
+            for (Topic topic : followed.values()) {
+                topic.coveredBlock = lastBlock;
+            }
+        } catch (Exception e) {
+            log.warn("Unable to poll token events, retrying on next poll", e);
+        }
+    }
+
+    private void publish(
+            List<String> addresses, BigInteger fromBlock, BigInteger toBlock) throws Exception {
+        EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(fromBlock),
+                DefaultBlockParameter.valueOf(toBlock),
+                addresses);
+        filter.addOptionalTopics(TRANSFER_TOPIC, APPROVAL_TOPIC);
+
+        EthLog ethLog = quorum.ethGetLogs(filter).send();
+        if (ethLog.hasError()) {
+            throw new RuntimeException(ethLog.getError().getMessage());
+        }
+        for (EthLog.LogResult<?> logResult : ethLog.getLogs()) {
+            Log log = (Log) logResult.get();
+            Topic topic = topics.get(normalise(log.getAddress()));
+            if (topic != null) {
+                topic.processor.onNext(log);
+            }
+        }
+    }
+
+    static String normalise(String contractAddress) {
+        return Numeric.prependHexPrefix(contractAddress.trim()).toLowerCase();
+    }
+
+    private static class Topic {
+        private final FlowableProcessor<Log> processor =
+                PublishProcessor.<Log>create().toSerialized();
+        // Only accessed while computing the entry for the topic
+        private int subscribers;
+        private volatile BigInteger coveredBlock;
+    }
+}
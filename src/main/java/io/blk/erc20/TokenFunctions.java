@@ -0,0 +1,123 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import io.blk.erc20.generated.HumanStandardTokenFactory;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.Utils;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.DynamicArray;
+import org.web3j.abi.datatypes.DynamicBytes;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.abi.datatypes.generated.Uint8;
+
+/**
+ * ABI function definitions for {@link HumanStandardToken} and
+ * {@link HumanStandardTokenFactory}, identical to those built inside the wrappers, for when we
+ * need to encode calls ourselves.
+ */
+final class TokenFunctions {
+
+    private TokenFunctions() { }
+
+    static Function name() {
+        return new Function(
+                HumanStandardToken.FUNC_NAME,
+                Collections.<Type>emptyList(),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Utf8String>() { }));
+    }
+
+    static Function symbol() {
+        return new Function(
+                HumanStandardToken.FUNC_SYMBOL,
+                Collections.<Type>emptyList(),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Utf8String>() { }));
+    }
+
+    static Function decimals() {
+        return new Function(
+                HumanStandardToken.FUNC_DECIMALS,
+                Collections.<Type>emptyList(),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Uint8>() { }));
+    }
+
+    static Function version() {
+        return new Function(
+                HumanStandardToken.FUNC_VERSION,
+                Collections.<Type>emptyList(),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Utf8String>() { }));
+    }
+
+    static Function totalSupply() {
+        return new Function(
+                HumanStandardToken.FUNC_TOTALSUPPLY,
+                Collections.<Type>emptyList(),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Uint256>() { }));
+    }
+
+    static Function balanceOf(String owner) {
+        return new Function(
+                HumanStandardToken.FUNC_BALANCEOF,
+                Arrays.<Type>asList(new Address(owner)),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Uint256>() { }));
+    }
+
+    static Function allowance(String owner, String spender) {
+        return new Function(
+                HumanStandardToken.FUNC_ALLOWANCE,
+                Arrays.<Type>asList(new Address(owner), new Address(spender)),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Uint256>() { }));
+    }
+
+    static Function transfer(String to, BigInteger value) {
+        return new Function(
+                HumanStandardToken.FUNC_TRANSFER,
+                Arrays.<Type>asList(new Address(to), new Uint256(value)),
+                Collections.<TypeReference<?>>emptyList());
+    }
+
+    static Function transferFrom(String from, String to, BigInteger value) {
+        return new Function(
+                HumanStandardToken.FUNC_TRANSFERFROM,
+                Arrays.<Type>asList(new Address(from), new Address(to), new Uint256(value)),
+                Collections.<TypeReference<?>>emptyList());
+    }
+
+    static Function approve(String spender, BigInteger value) {
+        return new Function(
+                HumanStandardToken.FUNC_APPROVE,
+                Arrays.<Type>asList(new Address(spender), new Uint256(value)),
+                Collections.<TypeReference<?>>emptyList());
+    }
+
+    static Function approveAndCall(String spender, BigInteger value, byte[] extraData) {
+        return new Function(
+                HumanStandardToken.FUNC_APPROVEANDCALL,
+                Arrays.<Type>asList(
+                        new Address(spender), new Uint256(value), new DynamicBytes(extraData)),
+                Collections.<TypeReference<?>>emptyList());
+    }
+
+    static Function createHumanStandardTokens(
+            List<BigInteger> initialAmounts, List<String> names, List<BigInteger> decimals,
+            List<String> symbols) {
+        return new Function(
+                HumanStandardTokenFactory.FUNC_CREATEHUMANSTANDARDTOKENS,
+                Arrays.<Type>asList(
+                        new DynamicArray<>(Uint256.class,
+                                Utils.typeMap(initialAmounts, Uint256.class)),
+                        new DynamicArray<>(Utf8String.class,
+                                Utils.typeMap(names, Utf8String.class)),
+                        new DynamicArray<>(Uint8.class, Utils.typeMap(decimals, Uint8.class)),
+                        new DynamicArray<>(Utf8String.class,
+                                Utils.typeMap(symbols, Utf8String.class))),
+                Collections.<TypeReference<?>>emptyList());
+    }
+}
@@ -0,0 +1,75 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Decoding of {@link HumanStandardToken} Transfer and Approval logs, without going through the
+ * generic event decoding of the wrapper.
+ *
+ * <p>Logs are matched on their first topic against {@link TokenEvents#TRANSFER_TOPIC} and
+ * {@link TokenEvents#APPROVAL_TOPIC}, the addresses are the last 20 bytes of the two indexed
+ * topics and the value is the single word of data. Logs with the same signature but another
+ * layout, such as ERC-721 transfers with an indexed token id, are not token events.
+ */
+final class TokenLogs {
+
+    private TokenLogs() { }
+
+    /**
+     * The type of a Transfer or Approval log, null for any other log.
+     */
+    static IndexedEvent.Type type(Log log) {
+        List<String> topics = log.getTopics();
+        if (topics == null || topics.size() != 3 || !isWord(log.getData())) {
+            return null;
+        }
+        String topic = topics.get(0);
+        if (TokenEvents.TRANSFER_TOPIC.equals(topic)) {
+            return IndexedEvent.Type.TRANSFER;
+        } else if (TokenEvents.APPROVAL_TOPIC.equals(topic)) {
+            return IndexedEvent.Type.APPROVAL;
+        }
+        return null;
+    }
+
+    /**
+     * The sender of a Transfer, or owner of an Approval.
+     */
+    static String from(Log log) {
+        return address(log.getTopics().get(1));
+    }
+
+    /**
+     * The recipient of a Transfer, or spender of an Approval.
+     */
+    static String to(Log log) {
+        return address(log.getTopics().get(2));
+    }
+
+    static BigInteger value(Log log) {
+        return TokenCalldata.decodeUint256(log.getData());
+    }
+
+    /**
+     * The address held in an indexed event topic.
+     */
+    static String address(String topic) {
+        char[] address = new char[42];
+        address[0] = '0';
+        address[1] = 'x';
+        int offset = topic.length() - 40;
+        for (int i = 0; i < 40; i++) {
+            char c = topic.charAt(offset + i);
+            address[i + 2] = c >= 'A' && c <= 'F' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(address);
+    }
+
+    private static boolean isWord(String data) {
+        return data != null && data.length() - (data.startsWith("0x") ? 2 : 0) == 64;
+    }
+}
@@ -0,0 +1,198 @@
+package io.blk.erc20;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.web3j.utils.Numeric;
+
+/**
+ * Cache of the immutable name, symbol, decimals and version values of deployed tokens.
+ *
+ * <p>Values are loaded on first access, and optionally persisted to
+ * {@link NodeConfiguration#getMetadataCacheFile()} so they survive restarts.
+ */
+@Component
+public class TokenMetadataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenMetadataCache.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, TokenMetadata> metadata = new ConcurrentHashMap<>();
+
+    private final Path file;
+
+    @Autowired
+    public TokenMetadataCache(NodeConfiguration nodeConfiguration) {
+        String metadataCacheFile = nodeConfiguration.getMetadataCacheFile();
+        if (metadataCacheFile == null || metadataCacheFile.isEmpty()) {
+            this.file = null;
+        } else {
+            this.file = new File(metadataCacheFile).toPath();
+            load();
+        }
+    }
+
+    public CompletableFuture<String> name(
+            String contractAddress, Supplier<CompletableFuture<String>> loader) {
+        return get(contractAddress, TokenMetadata::getName, TokenMetadata::setName, loader);
+    }
+
+    public CompletableFuture<String> symbol(
+            String contractAddress, Supplier<CompletableFuture<String>> loader) {
+        return get(contractAddress, TokenMetadata::getSymbol, TokenMetadata::setSymbol, loader);
+    }
+
+    public CompletableFuture<BigInteger> decimals(
+            String contractAddress, Supplier<CompletableFuture<BigInteger>> loader) {
+        return get(contractAddress, TokenMetadata::getDecimals, TokenMetadata::setDecimals, loader);
+    }
+
+    public CompletableFuture<String> version(
+            String contractAddress, Supplier<CompletableFuture<String>> loader) {
+        return get(contractAddress, TokenMetadata::getVersion, TokenMetadata::setVersion, loader);
+    }
+
+    /**
+     * Record the values a token was just deployed with, the version is loaded on demand.
+     */
+    public void deployed(
+            String contractAddress, String name, String symbol, BigInteger decimals) {
+        TokenMetadata tokenMetadata = metadataFor(contractAddress);
+        synchronized (tokenMetadata) {
+            tokenMetadata.setName(name);
+            tokenMetadata.setSymbol(symbol);
+            tokenMetadata.setDecimals(decimals);
+        }
+        save();
+    }
+
+    private <T> CompletableFuture<T> get(
+            String contractAddress,
+            Function<TokenMetadata, T> getter,
+            BiConsumer<TokenMetadata, T> setter,
+            Supplier<CompletableFuture<T>> loader) {
+        TokenMetadata cachedMetadata = metadata.get(key(contractAddress));
+        if (cachedMetadata != null) {
+            T cached;
+            synchronized (cachedMetadata) {
+                cached = getter.apply(cachedMetadata);
+            }
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        return loader.get().thenApply(value -> {
+            // Nothing is returned for addresses without a contract, which we don't want to pin,
+            // so a token is only added once a value has been loaded
+            if (value != null) {
+                TokenMetadata tokenMetadata = metadataFor(contractAddress);
+                synchronized (tokenMetadata) {
+                    setter.accept(tokenMetadata, value);
+                }
+                save();
+            }
+            return value;
+        });
+    }
+
+    private TokenMetadata metadataFor(String contractAddress) {
+        return metadata.computeIfAbsent(key(contractAddress), key -> new TokenMetadata());
+    }
+
+    private static String key(String contractAddress) {
+        return Numeric.prependHexPrefix(contractAddress.trim()).toLowerCase();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Map<String, TokenMetadata> saved = objectMapper.readValue(
+                    file.toFile(), new TypeReference<Map<String, TokenMetadata>>() { });
+            // Left by queries of addresses without a contract before we stopped adding them
+            saved.values().removeIf(TokenMetadata::isEmpty);
+            metadata.putAll(saved);
+            log.info("Loaded metadata for {} tokens from {}", saved.size(), file);
+        } catch (IOException e) {
+            log.warn("Unable to read token metadata from {}, starting empty", file, e);
+        }
+    }
+
+    private synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temporary.toFile(), metadata);
+            Files.move(temporary, file,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to write token metadata to {}", file, e);
+        }
+    }
+
+    static class TokenMetadata {
+        private String name;
+        private String symbol;
+        private BigInteger decimals;
+        private String version;
+
+        boolean isEmpty() {
+            return name == null && symbol == null && decimals == null && version == null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public void setSymbol(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public BigInteger getDecimals() {
+            return decimals;
+        }
+
+        public void setDecimals(BigInteger decimals) {
+            this.decimals = decimals;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public void setVersion(String version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Token details, all read as of the same block.
+ */
+@Getter
+@Setter
+public class TokenSummary {
+
+    private String contractAddress;
+    private BigInteger blockNumber;
+    private String name;
+    private String symbol;
+    private BigInteger decimals;
+    private String version;
+    private BigInteger totalSupply;
+
+    TokenSummary() { }
+
+    public TokenSummary(String contractAddress, BigInteger blockNumber) {
+        this.contractAddress = contractAddress;
+        this.blockNumber = blockNumber;
+    }
+
+    public String getContractAddress() {
+        return contractAddress;
+    }
+
+    public void setContractAddress(String contractAddress) {
+        this.contractAddress = contractAddress;
+    }
+
+    public BigInteger getBlockNumber() {
+        return blockNumber;
+    }
+
+    public void setBlockNumber(BigInteger blockNumber) {
+        this.blockNumber = blockNumber;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BigInteger getDecimals() {
+        return decimals;
+    }
+
+    public void setDecimals(BigInteger decimals) {
+        this.decimals = decimals;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public BigInteger getTotalSupply() {
+        return totalSupply;
+    }
+
+    public void setTotalSupply(BigInteger totalSupply) {
+        this.totalSupply = totalSupply;
+    }
+}
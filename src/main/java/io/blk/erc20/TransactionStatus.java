@@ -0,0 +1,80 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Current state of a previously submitted transaction, with any token events it emitted.
+ */
+@Getter
+@Setter
+public class TransactionStatus {
+
+    public enum Status {
+        /** The node does not know about the transaction. */
+        UNKNOWN,
+        /** The transaction has been accepted but is not yet mined. */
+        PENDING,
+        /** The transaction was mined successfully. */
+        SUCCESS,
+        /** The transaction was mined but reverted. */
+        FAILED
+    }
+
+    private String transactionHash;
+    private Status status;
+    private BigInteger blockNumber;
+    private List<ContractService.TransferEventResponse> transferEvents = Collections.emptyList();
+    private List<ContractService.ApprovalEventResponse> approvalEvents = Collections.emptyList();
+
+    TransactionStatus() { }
+
+    public TransactionStatus(String transactionHash, Status status) {
+        this.transactionHash = transactionHash;
+        this.status = status;
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public void setTransactionHash(String transactionHash) {
+        this.transactionHash = transactionHash;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public BigInteger getBlockNumber() {
+        return blockNumber;
+    }
+
+    public void setBlockNumber(BigInteger blockNumber) {
+        this.blockNumber = blockNumber;
+    }
+
+    public List<ContractService.TransferEventResponse> getTransferEvents() {
+        return transferEvents;
+    }
+
+    public void setTransferEvents(List<ContractService.TransferEventResponse> transferEvents) {
+        this.transferEvents = transferEvents;
+    }
+
+    public List<ContractService.ApprovalEventResponse> getApprovalEvents() {
+        return approvalEvents;
+    }
+
+    public void setApprovalEvents(List<ContractService.ApprovalEventResponse> approvalEvents) {
+        this.approvalEvents = approvalEvents;
+    }
+}
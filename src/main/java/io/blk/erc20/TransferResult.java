@@ -0,0 +1,48 @@
+package io.blk.erc20;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of a single transfer of a bulk request, with the reason it failed if it did.
+ *
+ * <p>A failed transfer with a transaction hash was sent, so may still be mined if its receipt
+ * wasn't seen in time. It shouldn't be sent again without checking its status first.
+ */
+@Getter
+@Setter
+public class TransferResult extends TransactionResponse<ContractService.TransferEventResponse> {
+
+    private String error;
+
+    TransferResult() { }
+
+    public TransferResult(TransactionResponse<ContractService.TransferEventResponse> response) {
+        super(response.getTransactionHash(), response.getEvent());
+    }
+
+    /**
+     * A transfer that was never sent.
+     */
+    public static TransferResult failed(String error) {
+        return failed(null, error);
+    }
+
+    /**
+     * A transfer that was sent, but failed or whose outcome isn't known.
+     */
+    public static TransferResult failed(String transactionHash, String error) {
+        TransferResult transferResult = new TransferResult();
+        transferResult.setTransactionHash(transactionHash);
+        transferResult.setError(error);
+        return transferResult;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,90 @@
+package io.blk.erc20;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.RemoteCall;
+
+/**
+ * Runs request handling, and the blocking calls to the node made while handling them, on
+ * virtual threads when {@link NodeConfiguration#isVirtualThreads()} is enabled.
+ *
+ * <p>Tomcat hands each request to a new virtual thread instead of its pool of
+ * {@code server.tomcat.max-threads}, so requests blocked on the node no longer hold up others
+ * and the number waiting at once is only bounded by {@code server.tomcat.max-connections}.
+ * With {@link NodeConfiguration#isAsyncRequests()} also enabled, calls sent asynchronously
+ * run on virtual threads too rather than on web3j's fixed pool.
+ *
+ * <p>The service is still built for Java 8, so virtual threads are looked up when enabled and
+ * need the service to be run on Java 21 or later.
+ */
+@Component
+public class VirtualThreads implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final ExecutorService executor;
+
+    @Autowired
+    public VirtualThreads(NodeConfiguration nodeConfiguration) {
+        this.executor = nodeConfiguration.isVirtualThreads() ? newExecutor("request-") : null;
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        if (executor != null) {
+            factory.addConnectorCustomizers(
+                    connector -> connector.getProtocolHandler().setExecutor(executor));
+        }
+    }
+
+    /**
+     * Send a call to the node on a new virtual thread.
+     */
+    public <T> CompletableFuture<T> sendAsync(RemoteCall<T> remoteCall) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                result.complete(remoteCall.send());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newExecutor(String name) {
+        try {
+            // Thread.ofVirtual().name(name, 0).factory()
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = ofVirtual.getMethod("name", String.class, long.class)
+                    .invoke(builder, name, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor =
+                    Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package io.blk.erc20.generated;
+
+import io.reactivex.Flowable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.DynamicBytes;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.RemoteCall;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.Contract;
+import org.web3j.tx.TransactionManager;
+import org.web3j.tx.gas.ContractGasProvider;
+
+/**
+ * <p>Binding of HumanStandardTokenFactory.sol, written by hand as is
+ * solidity/contract/build/HumanStandardTokenFactory.abi, following the wrappers web3j generates.
+ *
+ * <p>The contract hasn't been compiled here, so there is no binary to deploy it with, only a
+ * factory deployed separately can be loaded. Once it has been compiled, replace this with the
+ * wrapper generated by the <a href="https://docs.web3j.io/command_line.html">web3j command line
+ * tools</a> from its .bin and .abi.
+ */
+public class HumanStandardTokenFactory extends Contract {
+    // There is no binary to deploy or validate the contract against
+    private static final String BINARY = BIN_NOT_PROVIDED;
+
+    public static final String FUNC_CREATED = "created";
+
+    public static final String FUNC_CREATEHUMANSTANDARDTOKEN = "createHumanStandardToken";
+
+    public static final String FUNC_ISHUMANTOKEN = "isHumanToken";
+
+    public static final String FUNC_HUMANSTANDARDBYTECODE = "humanStandardByteCode";
+
+    public static final String FUNC_CREATEHUMANSTANDARDTOKENS = "createHumanStandardTokens";
+
+    public static final String FUNC_VERIFYHUMANSTANDARDTOKEN = "verifyHumanStandardToken";
+
+    public static final Event HUMANSTANDARDTOKENCREATED_EVENT = new Event("HumanStandardTokenCreated",
+            Arrays.<TypeReference<?>>asList(new TypeReference<Address>(true) {}, new TypeReference<Address>(true) {}));
+    ;
+
+    @Deprecated
+    protected HumanStandardTokenFactory(String contractAddress, Web3j web3j, Credentials credentials, BigInteger gasPrice, BigInteger gasLimit) {
+        super(BINARY, contractAddress, web3j, credentials, gasPrice, gasLimit);
+    }
+
+    protected HumanStandardTokenFactory(String contractAddress, Web3j web3j, Credentials credentials, ContractGasProvider contractGasProvider) {
+        super(BINARY, contractAddress, web3j, credentials, contractGasProvider);
+    }
+
+    @Deprecated
+    protected HumanStandardTokenFactory(String contractAddress, Web3j web3j, TransactionManager transactionManager, BigInteger gasPrice, BigInteger gasLimit) {
+        super(BINARY, contractAddress, web3j, transactionManager, gasPrice, gasLimit);
+    }
+
+    protected HumanStandardTokenFactory(String contractAddress, Web3j web3j, TransactionManager transactionManager, ContractGasProvider contractGasProvider) {
+        super(BINARY, contractAddress, web3j, transactionManager, contractGasProvider);
+    }
+
+    public RemoteCall<String> created(String param0, BigInteger param1) {
+        final Function function = new Function(FUNC_CREATED,
+                Arrays.<Type>asList(new org.web3j.abi.datatypes.Address(param0),
+                new org.web3j.abi.datatypes.generated.Uint256(param1)),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Address>() {}));
+        return executeRemoteCallSingleValueReturn(function, String.class);
+    }
+
+    public RemoteCall<TransactionReceipt> createHumanStandardToken(BigInteger _initialAmount, String _name, BigInteger _decimals, String _symbol) {
+        final Function function = new Function(
+                FUNC_CREATEHUMANSTANDARDTOKEN,
+                Arrays.<Type>asList(new org.web3j.abi.datatypes.generated.Uint256(_initialAmount),
+                new org.web3j.abi.datatypes.Utf8String(_name),
+                new org.web3j.abi.datatypes.generated.Uint8(_decimals),
+                new org.web3j.abi.datatypes.Utf8String(_symbol)),
+                Collections.<TypeReference<?>>emptyList());
+        return executeRemoteCallTransaction(function);
+    }
+
+    public RemoteCall<Boolean> isHumanToken(String param0) {
+        final Function function = new Function(FUNC_ISHUMANTOKEN,
+                Arrays.<Type>asList(new org.web3j.abi.datatypes.Address(param0)),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Bool>() {}));
+        return executeRemoteCallSingleValueReturn(function, Boolean.class);
+    }
+
+    public RemoteCall<byte[]> humanStandardByteCode() {
+        final Function function = new Function(FUNC_HUMANSTANDARDBYTECODE,
+                Arrays.<Type>asList(),
+                Arrays.<TypeReference<?>>asList(new TypeReference<DynamicBytes>() {}));
+        return executeRemoteCallSingleValueReturn(function, byte[].class);
+    }
+
+    public RemoteCall<TransactionReceipt> createHumanStandardTokens(List<BigInteger> _initialAmounts, List<String> _names, List<BigInteger> _decimals, List<String> _symbols) {
+        final Function function = new Function(
+                FUNC_CREATEHUMANSTANDARDTOKENS,
+                Arrays.<Type>asList(new org.web3j.abi.datatypes.DynamicArray<org.web3j.abi.datatypes.generated.Uint256>(
+                        org.web3j.abi.datatypes.generated.Uint256.class,
+                        org.web3j.abi.Utils.typeMap(_initialAmounts, org.web3j.abi.datatypes.generated.Uint256.class)),
+                new org.web3j.abi.datatypes.DynamicArray<org.web3j.abi.datatypes.Utf8String>(
+                        org.web3j.abi.datatypes.Utf8String.class,
+                        org.web3j.abi.Utils.typeMap(_names, org.web3j.abi.datatypes.Utf8String.class)),
+                new org.web3j.abi.datatypes.DynamicArray<org.web3j.abi.datatypes.generated.Uint8>(
+                        org.web3j.abi.datatypes.generated.Uint8.class,
+                        org.web3j.abi.Utils.typeMap(_decimals, org.web3j.abi.datatypes.generated.Uint8.class)),
+                new org.web3j.abi.datatypes.DynamicArray<org.web3j.abi.datatypes.Utf8String>(
+                        org.web3j.abi.datatypes.Utf8String.class,
+                        org.web3j.abi.Utils.typeMap(_symbols, org.web3j.abi.datatypes.Utf8String.class))),
+                Collections.<TypeReference<?>>emptyList());
+        return executeRemoteCallTransaction(function);
+    }
+
+    public RemoteCall<Boolean> verifyHumanStandardToken(String _tokenContract) {
+        final Function function = new Function(FUNC_VERIFYHUMANSTANDARDTOKEN,
+                Arrays.<Type>asList(new org.web3j.abi.datatypes.Address(_tokenContract)),
+                Arrays.<TypeReference<?>>asList(new TypeReference<Bool>() {}));
+        return executeRemoteCallSingleValueReturn(function, Boolean.class);
+    }
+
+    public List<HumanStandardTokenCreatedEventResponse> getHumanStandardTokenCreatedEvents(TransactionReceipt transactionReceipt) {
+        List<Contract.EventValuesWithLog> valueList = extractEventParametersWithLog(HUMANSTANDARDTOKENCREATED_EVENT, transactionReceipt);
+        ArrayList<HumanStandardTokenCreatedEventResponse> responses = new ArrayList<HumanStandardTokenCreatedEventResponse>(valueList.size());
+        for (Contract.EventValuesWithLog eventValues : valueList) {
+            HumanStandardTokenCreatedEventResponse typedResponse = new HumanStandardTokenCreatedEventResponse();
+            typedResponse.log = eventValues.getLog();
+            typedResponse._creator = (String) eventValues.getIndexedValues().get(0).getValue();
+            typedResponse._token = (String) eventValues.getIndexedValues().get(1).getValue();
+            responses.add(typedResponse);
+        }
+        return responses;
+    }
+
+    public Flowable<HumanStandardTokenCreatedEventResponse> humanStandardTokenCreatedEventFlowable(EthFilter filter) {
+        return web3j.ethLogFlowable(filter).map(new io.reactivex.functions.Function<Log, HumanStandardTokenCreatedEventResponse>() {
+            @Override
+            public HumanStandardTokenCreatedEventResponse apply(Log log) {
+                Contract.EventValuesWithLog eventValues = extractEventParametersWithLog(HUMANSTANDARDTOKENCREATED_EVENT, log);
+                HumanStandardTokenCreatedEventResponse typedResponse = new HumanStandardTokenCreatedEventResponse();
+                typedResponse.log = log;
+                typedResponse._creator = (String) eventValues.getIndexedValues().get(0).getValue();
+                typedResponse._token = (String) eventValues.getIndexedValues().get(1).getValue();
+                return typedResponse;
+            }
+        });
+    }
+
+    public Flowable<HumanStandardTokenCreatedEventResponse> humanStandardTokenCreatedEventFlowable(DefaultBlockParameter startBlock, DefaultBlockParameter endBlock) {
+        EthFilter filter = new EthFilter(startBlock, endBlock, getContractAddress());
+        filter.addSingleTopic(EventEncoder.encode(HUMANSTANDARDTOKENCREATED_EVENT));
+        return humanStandardTokenCreatedEventFlowable(filter);
+    }
+
+    @Deprecated
+    public static HumanStandardTokenFactory load(String contractAddress, Web3j web3j, Credentials credentials, BigInteger gasPrice, BigInteger gasLimit) {
+        return new HumanStandardTokenFactory(contractAddress, web3j, credentials, gasPrice, gasLimit);
+    }
+
+    @Deprecated
+    public static HumanStandardTokenFactory load(String contractAddress, Web3j web3j, TransactionManager transactionManager, BigInteger gasPrice, BigInteger gasLimit) {
+        return new HumanStandardTokenFactory(contractAddress, web3j, transactionManager, gasPrice, gasLimit);
+    }
+
+    public static HumanStandardTokenFactory load(String contractAddress, Web3j web3j, Credentials credentials, ContractGasProvider contractGasProvider) {
+        return new HumanStandardTokenFactory(contractAddress, web3j, credentials, contractGasProvider);
+    }
+
+    public static HumanStandardTokenFactory load(String contractAddress, Web3j web3j, TransactionManager transactionManager, ContractGasProvider contractGasProvider) {
+        return new HumanStandardTokenFactory(contractAddress, web3j, transactionManager, contractGasProvider);
+    }
+
+    public static class HumanStandardTokenCreatedEventResponse {
+        public Log log;
+
+        public String _creator;
+
+        public String _token;
+    }
+}
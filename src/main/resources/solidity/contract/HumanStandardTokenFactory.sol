@@ -1,14 +1,18 @@
-import "./HumanStandardToken.sol";
-
 pragma solidity ^0.5.2;
+// For the string[] parameters of createHumanStandardTokens
+pragma experimental ABIEncoderV2;
+
+import "./HumanStandardToken.sol";
 
 contract HumanStandardTokenFactory {
 
+    event HumanStandardTokenCreated(address indexed _creator, address indexed _token);
+
     mapping(address => address[]) public created;
     mapping(address => bool) public isHumanToken; //verify without having to do a bytecode check.
     bytes public humanStandardByteCode;
 
-    function HumanStandardTokenFactory() {
+    constructor() public {
       //upon creation of the factory, deploy a HumanStandardToken (parameters are meaningless) and store the bytecode provably.
       address verifiedToken = createHumanStandardToken(10000, "Verify Token", 3, "VTX");
       humanStandardByteCode = codeAt(verifiedToken);
@@ -16,7 +20,7 @@ contract HumanStandardTokenFactory {
 
     //verifies if a contract that has been deployed is a Human Standard Token.
     //NOTE: This is a very expensive function, and should only be used in an eth_call. ~800k gas
-    function verifyHumanStandardToken(address _tokenContract) returns (bool) {
+    function verifyHumanStandardToken(address _tokenContract) public view returns (bool) {
       bytes memory fetchedTokenByteCode = codeAt(_tokenContract);
 
       if (fetchedTokenByteCode.length != humanStandardByteCode.length) {
@@ -35,7 +39,7 @@ contract HumanStandardTokenFactory {
 
     //for now, keeping this internal. Ideally there should also be a live version of this that any contract can use, lib-style.
     //retrieves the bytecode at a specific address.
-    function codeAt(address _addr) internal returns (bytes o_code) {
+    function codeAt(address _addr) internal view returns (bytes memory o_code) {
       assembly {
           // retrieve the size of the code, this needs assembly
           let size := extcodesize(_addr)
@@ -51,12 +55,25 @@ contract HumanStandardTokenFactory {
       }
     }
 
-    function createHumanStandardToken(uint256 _initialAmount, string _name, uint8 _decimals, string _symbol) returns (address) {
+    function createHumanStandardToken(uint256 _initialAmount, string memory _name, uint8 _decimals, string memory _symbol) public returns (address) {
 
         HumanStandardToken newToken = (new HumanStandardToken(_initialAmount, _name, _decimals, _symbol));
         created[msg.sender].push(address(newToken));
         isHumanToken[address(newToken)] = true;
         newToken.transfer(msg.sender, _initialAmount); //the factory will own the created tokens. You must transfer them.
+        emit HumanStandardTokenCreated(msg.sender, address(newToken));
         return address(newToken);
     }
+
+    //creates many tokens in one transaction, each only costing its constructor arguments in the transaction's data.
+    //the new tokens are in the order of the HumanStandardTokenCreated events of the receipt.
+    function createHumanStandardTokens(uint256[] memory _initialAmounts, string[] memory _names, uint8[] memory _decimals, string[] memory _symbols) public returns (address[] memory) {
+        require(_names.length == _initialAmounts.length && _decimals.length == _initialAmounts.length && _symbols.length == _initialAmounts.length);
+
+        address[] memory tokens = new address[](_initialAmounts.length);
+        for (uint i = 0; i < _initialAmounts.length; i ++) {
+            tokens[i] = createHumanStandardToken(_initialAmounts[i], _names[i], _decimals[i], _symbols[i]);
+        }
+        return tokens;
+    }
 }
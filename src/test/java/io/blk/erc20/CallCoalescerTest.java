@@ -0,0 +1,153 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CallCoalescerTest {
+
+    private static final String CONTRACT_ADDRESS = "0x4d8b7e26b6f2b9a2c4a3b8d5a1d2e3f4a5b6c7d8";
+
+    private static final String MIXED_CASE_CONTRACT_ADDRESS =
+            "0x4D8B7E26B6F2B9A2C4A3B8D5A1D2E3F4A5B6C7D8";
+
+    private static final String OWNER = "0xed9d02e382b34818e88b88a309c7fe71e65f419d";
+
+    private static final String OTHER_OWNER = "0xca843569e3427144cead5e4d5999a3d0ccf92b8e";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private CallCoalescer callCoalescer;
+
+    private CompletableFuture<BigInteger> node;
+
+    @Before
+    public void setUp() {
+        callCoalescer = new CallCoalescer(new NodeConfiguration(), meterRegistry);
+        node = new CompletableFuture<>();
+    }
+
+    @Test
+    public void testConcurrentCallsShared() throws Exception {
+        CompletableFuture<BigInteger> first = balanceOf(CONTRACT_ADDRESS, OWNER);
+        CompletableFuture<BigInteger> second = balanceOf(MIXED_CASE_CONTRACT_ADDRESS, OWNER);
+        assertThat(calls.get(), is(1));
+
+        node.complete(BigInteger.TEN);
+        assertThat(first.get(), is(BigInteger.TEN));
+        assertThat(second.get(), is(BigInteger.TEN));
+        assertThat(callCoalescer.getStatistics().getSentCalls(), is(1L));
+        assertThat(callCoalescer.getStatistics().getCoalescedCalls(), is(1L));
+        assertThat(callCoalescer.getStatistics().getInFlightCalls(), is(0));
+        assertThat(meterRegistry.get("node.calls").tag("coalesced", "true").counter().count(),
+                is(1.0));
+
+        // Completed calls aren't shared
+        node = new CompletableFuture<>();
+        balanceOf(CONTRACT_ADDRESS, OWNER);
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void testDifferentCallsNotShared() {
+        balanceOf(CONTRACT_ADDRESS, OWNER);
+        balanceOf(CONTRACT_ADDRESS, OTHER_OWNER);
+        callCoalescer.call(
+                CONTRACT_ADDRESS, "balanceOf", TokenCalldata.balanceOf(OWNER),
+                DefaultBlockParameter.valueOf(BigInteger.ONE), this::send);
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void testFailureShared() throws Exception {
+        CompletableFuture<BigInteger> first = balanceOf(CONTRACT_ADDRESS, OWNER);
+        CompletableFuture<BigInteger> second = balanceOf(CONTRACT_ADDRESS, OWNER);
+        RuntimeException failure = new RuntimeException("Error processing call");
+        node.completeExceptionally(failure);
+        for (CompletableFuture<BigInteger> result : Arrays.asList(first, second)) {
+            try {
+                result.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), is(sameInstance(failure)));
+            }
+        }
+
+        // Nor are failed ones, or those that fail to be sent
+        node = new CompletableFuture<>();
+        balanceOf(CONTRACT_ADDRESS, OWNER);
+        assertThat(calls.get(), is(2));
+        node.complete(BigInteger.ONE);
+        CompletableFuture<BigInteger> unsent = callCoalescer.call(
+                CONTRACT_ADDRESS, "balanceOf", TokenCalldata.balanceOf(OWNER),
+                DefaultBlockParameterName.LATEST, () -> {
+                    throw new IllegalStateException();
+                });
+        assertThat(unsent.isCompletedExceptionally(), is(true));
+        assertThat(callCoalescer.getStatistics().getInFlightCalls(), is(0));
+    }
+
+    @Test
+    public void testCancelNotShared() throws Exception {
+        CompletableFuture<BigInteger> first = balanceOf(CONTRACT_ADDRESS, OWNER);
+        CompletableFuture<BigInteger> second = balanceOf(CONTRACT_ADDRESS, OWNER);
+        first.cancel(true);
+        node.complete(BigInteger.TEN);
+        assertThat(second.get(), is(BigInteger.TEN));
+    }
+
+    @Test
+    public void testForget() throws Exception {
+        CompletableFuture<BigInteger> before = balanceOf(CONTRACT_ADDRESS, OWNER);
+        Log log = new Log();
+        log.setAddress(MIXED_CASE_CONTRACT_ADDRESS);
+        callCoalescer.forget(Collections.singletonList(log));
+
+        CompletableFuture<BigInteger> beforeNode = node;
+        node = new CompletableFuture<>();
+        CompletableFuture<BigInteger> after = balanceOf(CONTRACT_ADDRESS, OWNER);
+        assertThat(calls.get(), is(2));
+        beforeNode.complete(BigInteger.TEN);
+        node.complete(BigInteger.ONE);
+        assertThat(before.get(), is(BigInteger.TEN));
+        assertThat(after.get(), is(BigInteger.ONE));
+    }
+
+    @Test
+    public void testDisabled() {
+        NodeConfiguration nodeConfiguration = new NodeConfiguration();
+        nodeConfiguration.setCoalesceCalls(false);
+        callCoalescer = new CallCoalescer(nodeConfiguration, meterRegistry);
+        balanceOf(CONTRACT_ADDRESS, OWNER);
+        balanceOf(CONTRACT_ADDRESS, OWNER);
+        assertThat(calls.get(), is(2));
+    }
+
+    private CompletableFuture<BigInteger> balanceOf(String contractAddress, String ownerAddress) {
+        return callCoalescer.call(
+                contractAddress, "balanceOf", TokenCalldata.balanceOf(ownerAddress),
+                DefaultBlockParameterName.LATEST, this::send);
+    }
+
+    private CompletableFuture<BigInteger> send() {
+        calls.incrementAndGet();
+        return node;
+    }
+}
@@ -1,9 +1,13 @@
 package io.blk.erc20;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
-import org.junit.Ignore;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +26,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @SpringBootTest(webEnvironment= SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -32,13 +37,39 @@ public class ControllerIT {
     // Transaction manager 2
     private static final String PRIVATE_FOR = "QfeDAys9MPDs2XHExtc84jKGHxZg/aj52DTh0vtA3Xc=";
 
+    private static final String TOKEN_FACTORY_ADDRESS = "io.blk.erc20.tokenFactoryAddress";
+
+    // Stands in for a real node, unless one is given with -DnodeEndpoint
+    private static Erc20TestNode testNode;
+
     @Autowired
     private NodeConfiguration nodeConfiguration;
 
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @BeforeClass
+    public static void startTestNode() throws IOException {
+        if (System.getProperty("nodeEndpoint") == null) {
+            testNode = Erc20TestNode.start();
+            testNode.setLatency(
+                    Long.getLong("testNodeLatency", 0), Long.getLong("testNodeJitter", 0));
+            System.setProperty("nodeEndpoint", testNode.getUrl());
+            if (System.getProperty("fromAddress") == null) {
+                System.setProperty("fromAddress", Erc20TestNode.DEFAULT_ACCOUNT);
+            }
+            System.setProperty(TOKEN_FACTORY_ADDRESS, testNode.deployFactory());
+        }
+    }
 
+    @AfterClass
+    public static void stopTestNode() {
+        if (testNode != null) {
+            testNode.close();
+            System.clearProperty("nodeEndpoint");
+            System.clearProperty(TOKEN_FACTORY_ADDRESS);
+        }
+    }
 
     @Test
     public void testConfig() {
@@ -48,7 +79,6 @@ public class ControllerIT {
         assertNotNull(responseEntity.getBody());
     }
 
-    @Ignore
     @Test
     public void testLifeCycle() {
         Controller.ContractSpecification contractSpecification =
@@ -98,6 +128,65 @@ public class ControllerIT {
                 contractSpecification.getInitialAmount().subtract(transferRequest.getValue()));
     }
 
+    @Test
+    public void testBatchDeploy() {
+        // Needs a factory on the node, as well as -Dio.blk.erc20.tokenFactoryAddress
+        assumeNotNull(nodeConfiguration.getTokenFactoryAddress());
+
+        List<Controller.ContractSpecification> contractSpecifications = Arrays.asList(
+                new Controller.ContractSpecification(
+                        BigInteger.valueOf(1000000), "Quorum Token", BigInteger.valueOf(25), "QT"),
+                new Controller.ContractSpecification(
+                        BigInteger.valueOf(500), "Other Token", BigInteger.valueOf(2), "OT"));
+
+        ResponseEntity<String[]> responseEntity =
+                this.restTemplate.postForEntity(
+                        "/deploy/batch", buildEntity(contractSpecifications), String[].class);
+        verifyHttpStatus(responseEntity);
+
+        String[] contractAddresses = responseEntity.getBody();
+        assertThat(contractAddresses.length, is(contractSpecifications.size()));
+        for (int i = 0; i < contractAddresses.length; i++) {
+            Controller.ContractSpecification contractSpecification = contractSpecifications.get(i);
+            verifyName(contractAddresses[i], contractSpecification.getTokenName());
+            verifySymbol(contractAddresses[i], contractSpecification.getTokenSymbol());
+            verifyTotalSupply(contractAddresses[i], contractSpecification.getInitialAmount());
+            verifyBalanceOf(contractAddresses[i],
+                    nodeConfiguration.getFromAddress(), contractSpecification.getInitialAmount());
+        }
+    }
+
+    @Test
+    public void testBatchDeployRejected() {
+        verifyBatchRejected(Collections.emptyList());
+        verifyBatchRejected(Collections.nCopies(
+                nodeConfiguration.getTokenFactoryBatchSize() + 1,
+                new Controller.ContractSpecification(
+                        BigInteger.ONE, "Quorum Token", BigInteger.ONE, "QT")));
+        verifyBatchRejected(Collections.singletonList(
+                new Controller.ContractSpecification(
+                        BigInteger.ONE, "Quorum Token", null, "QT")));
+        verifyBatchRejected(Collections.singletonList(
+                new Controller.ContractSpecification(
+                        BigInteger.ONE, "Quorum Token", BigInteger.valueOf(256), "QT")));
+    }
+
+    @Test
+    public void testEventIndexOfInvalidAddressRejected() {
+        ResponseEntity<String> responseEntity =
+                this.restTemplate.postForEntity(
+                        "/token/events/index", buildEntity(null), String.class);
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
+    private void verifyBatchRejected(
+            List<Controller.ContractSpecification> contractSpecifications) {
+        ResponseEntity<String> responseEntity =
+                this.restTemplate.postForEntity(
+                        "/deploy/batch", buildEntity(contractSpecifications), String.class);
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    }
+
     private String deploy(
             Controller.ContractSpecification contractSpecification) {
 
@@ -0,0 +1,791 @@
+package io.blk.erc20;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.blk.erc20.generated.HumanStandardToken;
+import io.blk.erc20.generated.HumanStandardTokenFactory;
+import io.reactivex.annotations.Nullable;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.Utils;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.DynamicArray;
+import org.web3j.abi.datatypes.DynamicBytes;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.abi.datatypes.generated.Uint8;
+import org.web3j.crypto.ContractUtils;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+/**
+ * An in-process stand-in for a node, answering the JSON-RPC requests we send for
+ * {@link HumanStandardToken} contracts over HTTP, including batches.
+ *
+ * <p>Tokens are deployed by sending the wrapper's deployment transaction, and behave as the
+ * contract does: transfers without the balance or allowance to cover them return false rather
+ * than failing. Every transaction is mined straight away in a block of its own, and calls are
+ * always answered from the latest state. Any account can send transactions, and private
+ * transactions are treated as public ones.
+ *
+ * <p>A {@link HumanStandardTokenFactory} can be added with {@link #deployFactory()}, creating
+ * tokens as the contract does without running its bytecode, which we don't have. Each token it
+ * creates is taken to cost a fixed amount of gas, which eth_estimateGas includes.
+ *
+ * <p>Each HTTP request is delayed by the latency given to {@link #setLatency(long, long)},
+ * plus up to the given jitter, drawn from a fixed seed so runs are repeatable.
+ */
+public class Erc20TestNode implements Closeable {
+
+    public static final String DEFAULT_ACCOUNT = "0xed9d02e382b34818e88b88a309c7fe71e65f419d";
+
+    private static final String ZERO_ADDRESS = Address.DEFAULT.getValue();
+
+    private static final String NAME = selector(TokenFunctions.name());
+    private static final String SYMBOL = selector(TokenFunctions.symbol());
+    private static final String DECIMALS = selector(TokenFunctions.decimals());
+    private static final String VERSION = selector(TokenFunctions.version());
+    private static final String TOTAL_SUPPLY = selector(TokenFunctions.totalSupply());
+    private static final String BALANCE_OF = selector(TokenFunctions.balanceOf(ZERO_ADDRESS));
+    private static final String ALLOWANCE =
+            selector(TokenFunctions.allowance(ZERO_ADDRESS, ZERO_ADDRESS));
+    private static final String TRANSFER =
+            selector(TokenFunctions.transfer(ZERO_ADDRESS, BigInteger.ZERO));
+    private static final String TRANSFER_FROM =
+            selector(TokenFunctions.transferFrom(ZERO_ADDRESS, ZERO_ADDRESS, BigInteger.ZERO));
+    private static final String APPROVE =
+            selector(TokenFunctions.approve(ZERO_ADDRESS, BigInteger.ZERO));
+    private static final String APPROVE_AND_CALL =
+            selector(TokenFunctions.approveAndCall(ZERO_ADDRESS, BigInteger.ZERO, new byte[0]));
+
+    private static final String CREATE_TOKEN = selector(new Function(
+            HumanStandardTokenFactory.FUNC_CREATEHUMANSTANDARDTOKEN,
+            Arrays.<Type>asList(Uint256.DEFAULT, Utf8String.DEFAULT, Uint8.DEFAULT,
+                    Utf8String.DEFAULT),
+            Collections.emptyList()));
+    private static final String CREATE_TOKENS = selector(new Function(
+            HumanStandardTokenFactory.FUNC_CREATEHUMANSTANDARDTOKENS,
+            Arrays.<Type>asList(
+                    new DynamicArray<>(Uint256.class, Collections.emptyList()),
+                    new DynamicArray<>(Utf8String.class, Collections.emptyList()),
+                    new DynamicArray<>(Uint8.class, Collections.emptyList()),
+                    new DynamicArray<>(Utf8String.class, Collections.emptyList())),
+            Collections.emptyList()));
+
+    private static final String TOKEN_CREATED_TOPIC =
+            EventEncoder.encode(HumanStandardTokenFactory.HUMANSTANDARDTOKENCREATED_EVENT);
+
+    private static final List<TypeReference<Type>> CONSTRUCTOR_PARAMETERS = Utils.convert(
+            Arrays.<TypeReference<?>>asList(
+                    new TypeReference<Uint256>() { },
+                    new TypeReference<Utf8String>() { },
+                    new TypeReference<Uint8>() { },
+                    new TypeReference<Utf8String>() { }));
+
+    private static final List<TypeReference<Type>> ADDRESS = Utils.convert(
+            Arrays.<TypeReference<?>>asList(new TypeReference<Address>() { }));
+
+    private static final List<TypeReference<Type>> ADDRESS_ADDRESS = Utils.convert(
+            Arrays.<TypeReference<?>>asList(
+                    new TypeReference<Address>() { },
+                    new TypeReference<Address>() { }));
+
+    private static final List<TypeReference<Type>> ADDRESS_VALUE = Utils.convert(
+            Arrays.<TypeReference<?>>asList(
+                    new TypeReference<Address>() { },
+                    new TypeReference<Uint256>() { }));
+
+    private static final List<TypeReference<Type>> ADDRESS_ADDRESS_VALUE = Utils.convert(
+            Arrays.<TypeReference<?>>asList(
+                    new TypeReference<Address>() { },
+                    new TypeReference<Address>() { },
+                    new TypeReference<Uint256>() { }));
+
+    private static final List<TypeReference<Type>> ADDRESS_VALUE_BYTES = Utils.convert(
+            Arrays.<TypeReference<?>>asList(
+                    new TypeReference<Address>() { },
+                    new TypeReference<Uint256>() { },
+                    new TypeReference<DynamicBytes>() { }));
+
+    // Stands in for the runtime code returned by eth_getCode, which we don't otherwise use
+    private static final String CODE = "0x6080604052";
+
+    private static final BigInteger TRANSACTION_GAS = BigInteger.valueOf(21000);
+
+    // Charged for each token a factory creates, in place of running the token's constructor
+    private static final BigInteger TOKEN_CREATION_GAS = BigInteger.valueOf(1000000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonNodeFactory json = JsonNodeFactory.instance;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "erc20-test-node");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String binary;
+
+    private final Random random = new Random(0);
+
+    private volatile long latency;
+
+    private volatile long jitter;
+
+    // Chain state, only accessed while holding the lock on this
+    private final Map<String, Token> tokens = new HashMap<>();
+    private final Map<String, BigInteger> factories = new HashMap<>();
+    private final Map<String, BigInteger> nonces = new HashMap<>();
+    private final Map<String, ObjectNode> receipts = new HashMap<>();
+    private final List<ObjectNode> logs = new ArrayList<>();
+    private long blockNumber;
+
+    private Erc20TestNode(int port) throws IOException {
+        this.binary = contractBinary();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Start a node on a free port.
+     */
+    public static Erc20TestNode start() throws IOException {
+        return start(0);
+    }
+
+    public static Erc20TestNode start(int port) throws IOException {
+        return new Erc20TestNode(port);
+    }
+
+    /**
+     * Run a node on its own, for load tests of a separately started service.
+     *
+     * <p>Arguments are the port, then optionally the latency and jitter in milliseconds.
+     */
+    public static void main(String[] args) throws Exception {
+        Erc20TestNode node = start(args.length > 0 ? Integer.parseInt(args[0]) : 22000);
+        node.setLatency(
+                args.length > 1 ? Long.parseLong(args[1]) : 0,
+                args.length > 2 ? Long.parseLong(args[2]) : 0);
+        System.out.println("ERC-20 test node listening on " + node.getUrl());
+        Thread.currentThread().join();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Delay each HTTP request by the latency plus a random amount up to the jitter, both in
+     * milliseconds.
+     */
+    public void setLatency(long latency, long jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Add a token factory, as if deployed by {@link #DEFAULT_ACCOUNT}.
+     *
+     * @return the address of the factory
+     */
+    public synchronized String deployFactory() {
+        BigInteger nonce = nonce(DEFAULT_ACCOUNT);
+        nonces.put(DEFAULT_ACCOUNT, nonce.add(BigInteger.ONE));
+        String factoryAddress = ContractUtils.generateContractAddress(DEFAULT_ACCOUNT, nonce);
+        // Contract nonces start at one
+        factories.put(factoryAddress, BigInteger.ONE);
+        return factoryAddress;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            JsonNode request;
+            try (InputStream body = exchange.getRequestBody()) {
+                request = objectMapper.readTree(body);
+            }
+            delay();
+
+            JsonNode response;
+            if (request.isArray()) {
+                ArrayNode responses = json.arrayNode();
+                for (JsonNode element : request) {
+                    responses.add(respond(element));
+                }
+                response = responses;
+            } else {
+                response = respond(request);
+            }
+
+            byte[] bytes = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long delay = latency;
+        if (jitter > 0) {
+            synchronized (random) {
+                delay += (long) (random.nextDouble() * jitter);
+            }
+        }
+        if (delay > 0) {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+    }
+
+    private ObjectNode respond(JsonNode request) {
+        ObjectNode response = json.objectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        try {
+            response.set("result", dispatch(
+                    request.path("method").asText(), request.path("params")));
+        } catch (RpcException e) {
+            ObjectNode error = response.putObject("error");
+            error.put("code", e.code);
+            error.put("message", e.getMessage());
+        }
+        return response;
+    }
+
+    private synchronized JsonNode dispatch(String method, JsonNode params) throws RpcException {
+        switch (method) {
+            case "web3_clientVersion":
+                return json.textNode("Erc20TestNode");
+            case "net_version":
+                return json.textNode("10");
+            case "eth_accounts":
+                return json.arrayNode().add(DEFAULT_ACCOUNT);
+            case "eth_coinbase":
+                return json.textNode(DEFAULT_ACCOUNT);
+            case "eth_gasPrice":
+                return quantity(BigInteger.ZERO);
+            case "eth_blockNumber":
+                return quantity(BigInteger.valueOf(blockNumber));
+            case "eth_getTransactionCount":
+                return quantity(nonce(params.path(0).asText()));
+            case "eth_getBlockByNumber":
+                return block(block(params.path(0)));
+            case "eth_getCode":
+                return getCode(params.path(0).asText(), block(params.path(1)));
+            case "eth_call":
+                return call(params.path(0));
+            case "eth_estimateGas":
+                return quantity(estimateGas(params.path(0)));
+            case "eth_sendTransaction":
+                return sendTransaction(params.path(0));
+            case "eth_getTransactionReceipt":
+                ObjectNode receipt = receipts.get(params.path(0).asText().toLowerCase());
+                return receipt == null ? json.nullNode() : receipt;
+            case "eth_getLogs":
+                return getLogs(params.path(0));
+            default:
+                throw new RpcException(
+                        -32601, "The method " + method + " does not exist/is not available");
+        }
+    }
+
+    private JsonNode getCode(String address, long block) {
+        Token token = tokens.get(address.toLowerCase());
+        return json.textNode((token != null && token.deploymentBlock <= block)
+                || factories.containsKey(address.toLowerCase()) ? CODE : "0x");
+    }
+
+    private JsonNode call(JsonNode transaction) throws RpcException {
+        Token token = tokens.get(transaction.path("to").asText().toLowerCase());
+        String data = Numeric.prependHexPrefix(transaction.path("data").asText());
+        if (token == null || data.length() < 10) {
+            return json.textNode("0x");
+        }
+
+        String selector = data.substring(0, 10);
+        String arguments = data.substring(10);
+        Type result;
+        if (selector.equals(NAME)) {
+            result = new Utf8String(token.name);
+        } else if (selector.equals(SYMBOL)) {
+            result = new Utf8String(token.symbol);
+        } else if (selector.equals(DECIMALS)) {
+            result = new Uint8(token.decimals);
+        } else if (selector.equals(VERSION)) {
+            result = new Utf8String("H0.1");
+        } else if (selector.equals(TOTAL_SUPPLY)) {
+            result = new Uint256(token.totalSupply);
+        } else if (selector.equals(BALANCE_OF)) {
+            List<Type> values = decode(arguments, ADDRESS);
+            result = new Uint256(token.balance(address(values.get(0))));
+        } else if (selector.equals(ALLOWANCE)) {
+            List<Type> values = decode(arguments, ADDRESS_ADDRESS);
+            result = new Uint256(
+                    token.allowance(address(values.get(0)), address(values.get(1))));
+        } else {
+            throw new RpcException(-32000, "execution reverted");
+        }
+        return json.textNode(
+                "0x" + FunctionEncoder.encodeConstructor(Collections.singletonList(result)));
+    }
+
+    private BigInteger estimateGas(JsonNode transaction) {
+        String to = transaction.path("to").asText().toLowerCase();
+        String data = Numeric.cleanHexPrefix(transaction.path("data").asText());
+        return factories.containsKey(to) ? factoryGas(data) : TRANSACTION_GAS;
+    }
+
+    private static BigInteger factoryGas(String data) {
+        String selector = data.length() < 8 ? "" : "0x" + data.substring(0, 8);
+        int tokens = 0;
+        if (selector.equals(CREATE_TOKEN)) {
+            tokens = 1;
+        } else if (selector.equals(CREATE_TOKENS)) {
+            tokens = uintArray(data.substring(8), 0).size();
+        }
+        return TRANSACTION_GAS.add(TOKEN_CREATION_GAS.multiply(BigInteger.valueOf(tokens)));
+    }
+
+    private JsonNode sendTransaction(JsonNode transaction) throws RpcException {
+        String from = transaction.path("from").asText().toLowerCase();
+        if (from.isEmpty()) {
+            throw new RpcException(-32000, "from address is required");
+        }
+        BigInteger nonce = nonce(from);
+        if (transaction.hasNonNull("nonce")) {
+            int comparison = Numeric.decodeQuantity(transaction.get("nonce").asText())
+                    .compareTo(nonce);
+            if (comparison < 0) {
+                throw new RpcException(-32000, "nonce too low");
+            } else if (comparison > 0) {
+                throw new RpcException(-32000, "invalid nonce, expected " + nonce);
+            }
+        }
+        nonces.put(from, nonce.add(BigInteger.ONE));
+
+        String to = transaction.hasNonNull("to")
+                ? transaction.get("to").asText().toLowerCase() : null;
+        String data = Numeric.cleanHexPrefix(transaction.path("data").asText());
+        String transactionHash = Hash.sha3String(from + ":" + nonce + ":" + to + ":" + data);
+
+        blockNumber++;
+        ObjectNode receipt = json.objectNode();
+        receipt.put("transactionHash", transactionHash);
+        receipt.put("transactionIndex", "0x0");
+        receipt.put("blockHash", blockHash(blockNumber));
+        receipt.set("blockNumber", quantity(BigInteger.valueOf(blockNumber)));
+        receipt.put("from", from);
+        receipt.put("to", to);
+        receipt.put("cumulativeGasUsed", "0x5208");
+        receipt.put("gasUsed", "0x5208");
+        receipt.putNull("contractAddress");
+        receipt.put("logsBloom", "0x" + String.join("", Collections.nCopies(512, "0")));
+        ArrayNode receiptLogs = receipt.putArray("logs");
+
+        boolean success;
+        if (to == null) {
+            String contractAddress = ContractUtils.generateContractAddress(from, nonce);
+            success = deploy(contractAddress, from, data);
+            if (success) {
+                receipt.put("contractAddress", contractAddress);
+            }
+        } else if (factories.containsKey(to)) {
+            // Without enough gas for every token the transaction runs out part way through
+            success = (!transaction.hasNonNull("gas")
+                    || Numeric.decodeQuantity(transaction.get("gas").asText())
+                            .compareTo(factoryGas(data)) >= 0)
+                    && create(to, from, data, receiptLogs);
+        } else {
+            Token token = tokens.get(to);
+            success = token != null && execute(token, from, data, receiptLogs);
+        }
+        receipt.put("status", success ? "0x1" : "0x0");
+
+        for (JsonNode log : receiptLogs) {
+            ObjectNode entry = (ObjectNode) log;
+            entry.set("logIndex", quantity(BigInteger.valueOf(logs.size())));
+            entry.put("transactionHash", transactionHash);
+            entry.put("transactionIndex", "0x0");
+            entry.put("blockHash", blockHash(blockNumber));
+            entry.set("blockNumber", quantity(BigInteger.valueOf(blockNumber)));
+            logs.add(entry);
+        }
+        receipts.put(transactionHash, receipt);
+        return json.textNode(transactionHash);
+    }
+
+    private boolean deploy(String contractAddress, String from, String data) {
+        if (!data.startsWith(binary)) {
+            return false;
+        }
+        List<Type> values = decode(data.substring(binary.length()), CONSTRUCTOR_PARAMETERS);
+        Token token = new Token(
+                contractAddress,
+                (String) values.get(1).getValue(),
+                (String) values.get(3).getValue(),
+                (BigInteger) values.get(2).getValue(),
+                (BigInteger) values.get(0).getValue(),
+                blockNumber);
+        token.balances.put(from, token.totalSupply);
+        tokens.put(contractAddress, token);
+        return true;
+    }
+
+    private boolean create(
+            String factoryAddress, String sender, String data, ArrayNode receiptLogs) {
+        if (data.length() < 8) {
+            return false;
+        }
+        String selector = "0x" + data.substring(0, 8);
+        String arguments = data.substring(8);
+
+        if (selector.equals(CREATE_TOKEN)) {
+            List<Type> values = decode(arguments, CONSTRUCTOR_PARAMETERS);
+            create(factoryAddress, sender,
+                    (BigInteger) values.get(0).getValue(),
+                    (String) values.get(1).getValue(),
+                    (BigInteger) values.get(2).getValue(),
+                    (String) values.get(3).getValue(),
+                    receiptLogs);
+        } else if (selector.equals(CREATE_TOKENS)) {
+            // FunctionReturnDecoder doesn't decode string[], so we read the arrays ourselves
+            List<BigInteger> initialAmounts = uintArray(arguments, 0);
+            List<String> names = stringArray(arguments, 1);
+            List<BigInteger> decimals = uintArray(arguments, 2);
+            List<String> symbols = stringArray(arguments, 3);
+            if (names.size() != initialAmounts.size()
+                    || decimals.size() != initialAmounts.size()
+                    || symbols.size() != initialAmounts.size()) {
+                return false;
+            }
+            for (int i = 0; i < initialAmounts.size(); i++) {
+                create(factoryAddress, sender, initialAmounts.get(i), names.get(i),
+                        decimals.get(i), symbols.get(i), receiptLogs);
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * A token created by a factory, which holds its supply until transferring it to the sender.
+     */
+    private void create(
+            String factoryAddress, String sender, BigInteger initialAmount, String name,
+            BigInteger decimals, String symbol, ArrayNode receiptLogs) {
+        BigInteger nonce = factories.get(factoryAddress);
+        factories.put(factoryAddress, nonce.add(BigInteger.ONE));
+        String contractAddress = ContractUtils.generateContractAddress(factoryAddress, nonce);
+        Token token = new Token(
+                contractAddress, name, symbol, decimals, initialAmount, blockNumber);
+        token.balances.put(factoryAddress, initialAmount);
+        tokens.put(contractAddress, token);
+
+        transfer(token, contractAddress, null, factoryAddress, sender, initialAmount,
+                receiptLogs);
+        ObjectNode log = json.objectNode();
+        log.put("removed", false);
+        log.put("address", factoryAddress);
+        log.put("data", "0x");
+        log.putArray("topics")
+                .add(TOKEN_CREATED_TOPIC)
+                .add(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(sender), 64))
+                .add(Numeric.toHexStringWithPrefixZeroPadded(
+                        Numeric.toBigInt(contractAddress), 64));
+        receiptLogs.add(log);
+    }
+
+    private boolean execute(Token token, String sender, String data, ArrayNode receiptLogs) {
+        if (data.length() < 8) {
+            return false;
+        }
+        String selector = "0x" + data.substring(0, 8);
+        String arguments = data.substring(8);
+        String contractAddress = token.address;
+
+        if (selector.equals(TRANSFER)) {
+            List<Type> values = decode(arguments, ADDRESS_VALUE);
+            transfer(token, contractAddress, null, sender, address(values.get(0)),
+                    (BigInteger) values.get(1).getValue(), receiptLogs);
+        } else if (selector.equals(TRANSFER_FROM)) {
+            List<Type> values = decode(arguments, ADDRESS_ADDRESS_VALUE);
+            transfer(token, contractAddress, sender, address(values.get(0)),
+                    address(values.get(1)), (BigInteger) values.get(2).getValue(), receiptLogs);
+        } else if (selector.equals(APPROVE)) {
+            List<Type> values = decode(arguments, ADDRESS_VALUE);
+            approve(token, contractAddress, sender, address(values.get(0)),
+                    (BigInteger) values.get(1).getValue(), receiptLogs);
+        } else if (selector.equals(APPROVE_AND_CALL)) {
+            List<Type> values = decode(arguments, ADDRESS_VALUE_BYTES);
+            String spender = address(values.get(0));
+            if (tokens.containsKey(spender)) {
+                // Tokens don't implement receiveApproval, so the call reverts
+                return false;
+            }
+            approve(token, contractAddress, sender, spender,
+                    (BigInteger) values.get(1).getValue(), receiptLogs);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * A transfer, spending the allowance of the spender if given as for transferFrom, even if
+     * that is the owner.
+     */
+    private void transfer(
+            Token token, String contractAddress, @Nullable String spender, String from,
+            String to, BigInteger value, ArrayNode receiptLogs) {
+        if (value.signum() <= 0
+                || token.balance(from).compareTo(value) < 0
+                || (spender != null && token.allowance(from, spender).compareTo(value) < 0)) {
+            return;
+        }
+        token.balances.put(from, token.balance(from).subtract(value));
+        token.balances.put(to, token.balance(to).add(value));
+        if (spender != null) {
+            token.allowed.get(from).put(spender, token.allowance(from, spender).subtract(value));
+        }
+        receiptLogs.add(log(contractAddress, TokenEvents.TRANSFER_TOPIC, from, to, value));
+    }
+
+    private void approve(
+            Token token, String contractAddress, String owner, String spender,
+            BigInteger value, ArrayNode receiptLogs) {
+        token.allowed.computeIfAbsent(owner, key -> new HashMap<>()).put(spender, value);
+        receiptLogs.add(log(contractAddress, TokenEvents.APPROVAL_TOPIC, owner, spender, value));
+    }
+
+    private ObjectNode log(
+            String contractAddress, String topic, String from, String to, BigInteger value) {
+        ObjectNode log = json.objectNode();
+        log.put("removed", false);
+        log.put("address", contractAddress);
+        log.put("data", Numeric.toHexStringWithPrefixZeroPadded(value, 64));
+        log.putArray("topics")
+                .add(topic)
+                .add(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(from), 64))
+                .add(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(to), 64));
+        return log;
+    }
+
+    private JsonNode getLogs(JsonNode filter) {
+        long fromBlock = block(filter.path("fromBlock"));
+        long toBlock = block(filter.path("toBlock"));
+        List<String> addresses = new ArrayList<>();
+        if (filter.path("address").isArray()) {
+            for (JsonNode address : filter.get("address")) {
+                addresses.add(address.asText().toLowerCase());
+            }
+        } else if (filter.path("address").isTextual()) {
+            addresses.add(filter.get("address").asText().toLowerCase());
+        }
+
+        ArrayNode result = json.arrayNode();
+        for (ObjectNode log : logs) {
+            long number = Numeric.decodeQuantity(log.get("blockNumber").asText()).longValue();
+            if (number >= fromBlock && number <= toBlock
+                    && (addresses.isEmpty() || addresses.contains(log.get("address").asText()))
+                    && matches(log.get("topics"), filter.path("topics"))) {
+                result.add(log);
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(JsonNode topics, JsonNode filter) {
+        for (int i = 0; i < filter.size(); i++) {
+            JsonNode expected = filter.get(i);
+            if (expected.isNull()) {
+                continue;
+            }
+            String topic = topics.path(i).asText(null);
+            if (topic == null) {
+                return false;
+            }
+            boolean matched = false;
+            if (expected.isArray()) {
+                for (JsonNode option : expected) {
+                    matched |= option.asText().equalsIgnoreCase(topic);
+                }
+            } else {
+                matched = expected.asText().equalsIgnoreCase(topic);
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private JsonNode block(long number) {
+        ObjectNode block = json.objectNode();
+        block.set("number", quantity(BigInteger.valueOf(number)));
+        block.put("hash", blockHash(number));
+        block.put("parentHash", number == 0 ? Hash.sha3String("genesis") : blockHash(number - 1));
+        block.set("timestamp", quantity(BigInteger.valueOf(number)));
+        block.putArray("transactions");
+        block.putArray("uncles");
+        return block;
+    }
+
+    private long block(JsonNode parameter) {
+        String value = parameter.asText("latest");
+        if (value.equals("earliest")) {
+            return 0;
+        } else if (value.startsWith("0x")) {
+            return Numeric.decodeQuantity(value).longValue();
+        } else {
+            return blockNumber;
+        }
+    }
+
+    private BigInteger nonce(String address) {
+        return nonces.getOrDefault(address.toLowerCase(), BigInteger.ZERO);
+    }
+
+    private JsonNode quantity(BigInteger value) {
+        return json.textNode(Numeric.encodeQuantity(value));
+    }
+
+    private static String blockHash(long number) {
+        return Hash.sha3String("block:" + number);
+    }
+
+    private static String address(Type address) {
+        return ((String) address.getValue()).toLowerCase();
+    }
+
+    private static List<Type> decode(String arguments, List<TypeReference<Type>> types) {
+        return FunctionReturnDecoder.decode(arguments, types);
+    }
+
+    private static List<BigInteger> uintArray(String arguments, int parameter) {
+        int offset = word(arguments, parameter).intValueExact() / 32;
+        int length = word(arguments, offset).intValueExact();
+        List<BigInteger> values = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            values.add(word(arguments, offset + 1 + i));
+        }
+        return values;
+    }
+
+    private static List<String> stringArray(String arguments, int parameter) {
+        int offset = word(arguments, parameter).intValueExact() / 32;
+        int length = word(arguments, offset).intValueExact();
+        List<String> values = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            // Offsets of the elements are from the start of the array's contents
+            int element = offset + 1 + word(arguments, offset + 1 + i).intValueExact() / 32;
+            int start = (element + 1) * 64;
+            values.add(new String(
+                    Numeric.hexStringToByteArray(arguments.substring(
+                            start, start + word(arguments, element).intValueExact() * 2)),
+                    StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static BigInteger word(String arguments, int index) {
+        return Numeric.toBigInt(arguments.substring(index * 64, (index + 1) * 64));
+    }
+
+    private static String selector(Function function) {
+        return FunctionEncoder.encode(function).substring(0, 10);
+    }
+
+    private static String contractBinary() {
+        try {
+            Field field = HumanStandardToken.class.getDeclaredField("BINARY");
+            field.setAccessible(true);
+            return (String) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to read the token contract binary", e);
+        }
+    }
+
+    private static class Token {
+        private final String address;
+        private final String name;
+        private final String symbol;
+        private final BigInteger decimals;
+        private final BigInteger totalSupply;
+        private final long deploymentBlock;
+        private final Map<String, BigInteger> balances = new HashMap<>();
+        private final Map<String, Map<String, BigInteger>> allowed = new HashMap<>();
+
+        Token(String address, String name, String symbol, BigInteger decimals,
+                BigInteger totalSupply, long deploymentBlock) {
+            this.address = address;
+            this.name = name;
+            this.symbol = symbol;
+            this.decimals = decimals;
+            this.totalSupply = totalSupply;
+            this.deploymentBlock = deploymentBlock;
+        }
+
+        BigInteger balance(String owner) {
+            return balances.getOrDefault(owner, BigInteger.ZERO);
+        }
+
+        BigInteger allowance(String owner, String spender) {
+            return allowed.getOrDefault(owner, Collections.emptyMap())
+                    .getOrDefault(spender, BigInteger.ZERO);
+        }
+    }
+
+    private static class RpcException extends Exception {
+        private final int code;
+
+        RpcException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+}
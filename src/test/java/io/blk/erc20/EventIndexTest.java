@@ -0,0 +1,198 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.quorum.Quorum;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class EventIndexTest {
+
+    private static final String CONTRACT_ADDRESS = "0x4d8b7e26b6f2b9a2c4a3b8d5a1d2e3f4a5b6c7d8";
+
+    private static final String OWNER = "0xed9d02e382b34818e88b88a309c7fe71e65f419d";
+
+    private static final String HOLDER = "0xca843569e3427144cead5e4d5999a3d0ccf92b8e";
+
+    private static final int BLOCKS = 600;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final NodeConfiguration nodeConfiguration = new NodeConfiguration();
+
+    private Erc20TestNode testNode;
+
+    private EventIndex eventIndex;
+
+    @Before
+    public void setUp() throws IOException {
+        testNode = Erc20TestNode.start();
+        nodeConfiguration.setNodeEndpoint(testNode.getUrl());
+        nodeConfiguration.setEventIndexDirectory(folder.getRoot().getPath());
+    }
+
+    @After
+    public void tearDown() {
+        if (eventIndex != null) {
+            eventIndex.shutdown();
+        }
+        testNode.close();
+    }
+
+    @Test
+    public void testPagesReadFromFile() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(fromBlock());
+        for (int block = 1; block <= BLOCKS; block++) {
+            lines.add(event(block));
+            if (block % 100 == 0) {
+                lines.add(checkpoint(block));
+            }
+        }
+        // Left by a write interrupted part way through
+        lines.add(event(BLOCKS + 1));
+        Path file = write(lines);
+        lines.add("{\"event\":{\"blockNum");
+        Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+
+        eventIndex = eventIndex();
+        assertThat(eventIndex.status(CONTRACT_ADDRESS).getEvents(), is((long) BLOCKS));
+        assertThat(eventIndex.status(CONTRACT_ADDRESS).getIndexedBlock(),
+                is(BigInteger.valueOf(BLOCKS)));
+
+        verifyPage(eventIndex.events(CONTRACT_ADDRESS, null, null, null, 0, 100), 1, 100, BLOCKS);
+        verifyPage(eventIndex.events(CONTRACT_ADDRESS, null, null, null, 3, 150), 451, 150, BLOCKS);
+        verifyPage(eventIndex.events(CONTRACT_ADDRESS, null, null, null, 6, 100), 0, 0, BLOCKS);
+        verifyPage(eventIndex.events(
+                CONTRACT_ADDRESS, null, BigInteger.valueOf(300), BigInteger.valueOf(309), 0, 5),
+                300, 5, 10);
+        verifyPage(eventIndex.events(
+                CONTRACT_ADDRESS, null, BigInteger.valueOf(513), null, 1, 50),
+                563, 38, 88);
+
+        // Every third event is to the holder
+        EventIndex.EventPage page = eventIndex.events(
+                CONTRACT_ADDRESS, HOLDER.toUpperCase().replace("0X", "0x"),
+                BigInteger.valueOf(100), null, 1, 10);
+        assertThat(page.getTotalEvents(), is(167L));
+        assertThat(page.getEvents().size(), is(10));
+        assertThat(page.getEvents().get(0).getBlockNumber(), is(BigInteger.valueOf(132)));
+
+        // The uncommitted records are dropped, so appends follow the last checkpoint
+        assertThat(Files.readAllLines(file).size(), is(BLOCKS + BLOCKS / 100 + 1));
+    }
+
+    @Test
+    public void testUncommittedRecordsRewritten() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(fromBlock());
+        lines.add(event(1));
+        lines.add(checkpoint(1));
+        // Fetched before a failure, then again over fewer blocks
+        lines.add(event(2));
+        lines.add(event(3));
+        lines.add("not a record");
+        lines.add(event(2));
+        lines.add(checkpoint(2));
+        lines.add(event(3));
+        lines.add(checkpoint(3));
+        Path file = write(lines);
+
+        eventIndex = eventIndex();
+        EventIndex.EventPage page = eventIndex.events(CONTRACT_ADDRESS, null, null, null, 0, 10);
+        verifyPage(page, 1, 3, 3);
+        assertThat(Files.readAllLines(file).size(), is(7));
+    }
+
+    @Test
+    public void testOnlyContractAddressesRegistered() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(fromBlock());
+        lines.add(event(1));
+        lines.add(checkpoint(1));
+        write(lines);
+        Files.write(folder.getRoot().toPath().resolve("token.events"), lines);
+
+        eventIndex = eventIndex();
+        assertThat(eventIndex.status(CONTRACT_ADDRESS).getEvents(), is(1L));
+        try {
+            eventIndex.status("token");
+            fail("Registered a file not named after a contract address");
+        } catch (RuntimeException expected) {
+            // Skipped on load
+        }
+        try {
+            eventIndex.register("../" + CONTRACT_ADDRESS.substring(2));
+            fail("Registered an invalid contract address");
+        } catch (IllegalArgumentException expected) {
+            // Not resolved against the index directory
+        }
+    }
+
+    private EventIndex eventIndex() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new EventIndex(
+                Quorum.build(new HttpService(testNode.getUrl())),
+                new BlockHeads(Quorum.build(new HttpService(testNode.getUrl())),
+                        nodeConfiguration),
+                new NodePool(nodeConfiguration,
+                        new NodeHttpClient(nodeConfiguration, meterRegistry), meterRegistry),
+                nodeConfiguration);
+    }
+
+    private static void verifyPage(
+            EventIndex.EventPage page, int firstBlock, int size, long totalEvents) {
+        assertThat(page.getTotalEvents(), is(totalEvents));
+        assertThat(page.getEvents().size(), is(size));
+        for (int i = 0; i < size; i++) {
+            assertThat(page.getEvents().get(i).getBlockNumber(),
+                    is(BigInteger.valueOf(firstBlock + i)));
+        }
+    }
+
+    private Path write(List<String> lines) throws IOException {
+        return Files.write(
+                folder.getRoot().toPath().resolve(CONTRACT_ADDRESS + ".events"), lines);
+    }
+
+    private String fromBlock() throws IOException {
+        EventIndex.Record record = new EventIndex.Record();
+        record.setFromBlock(BigInteger.ONE);
+        return objectMapper.writeValueAsString(record);
+    }
+
+    private String event(int block) throws IOException {
+        EventIndex.Record record = new EventIndex.Record();
+        record.setEvent(new IndexedEvent(
+                IndexedEvent.Type.TRANSFER, BigInteger.valueOf(block), "0x" + block,
+                BigInteger.ZERO, OWNER, block % 3 == 0 ? HOLDER : OWNER, BigInteger.ONE));
+        return objectMapper.writeValueAsString(record);
+    }
+
+    private String checkpoint(int block) throws IOException {
+        EventIndex.Record record = new EventIndex.Record();
+        record.setCheckpoint(BigInteger.valueOf(block));
+        return objectMapper.writeValueAsString(record);
+    }
+}
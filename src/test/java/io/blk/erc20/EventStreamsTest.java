@@ -0,0 +1,125 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.disposables.Disposable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.quorum.Quorum;
+import org.web3j.tx.ClientTransactionManager;
+import org.web3j.tx.gas.StaticGasProvider;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class EventStreamsTest {
+
+    private static final String TO = "0xca843569e3427144cead5e4d5999a3d0ccf92b8e";
+
+    private static final int BUFFER_SIZE = 3;
+
+    private static final int TRANSFERS = 10;
+
+    private final NodeConfiguration nodeConfiguration = new NodeConfiguration();
+
+    private Erc20TestNode testNode;
+
+    private Quorum quorum;
+
+    private BlockHeads blockHeads;
+
+    private NodePool nodePool;
+
+    private TokenEvents tokenEvents;
+
+    private EventStreams eventStreams;
+
+    @Before
+    public void setUp() throws IOException {
+        testNode = Erc20TestNode.start();
+        quorum = Quorum.build(new HttpService(testNode.getUrl()));
+        nodeConfiguration.setNodeEndpoint(testNode.getUrl());
+        nodeConfiguration.setEventPollInterval(50);
+        nodeConfiguration.setEventStreamBufferSize(BUFFER_SIZE);
+        nodeConfiguration.setEventStreamOverflowStrategy(
+                BackpressureOverflowStrategy.DROP_LATEST);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        blockHeads = new BlockHeads(quorum, nodeConfiguration);
+        nodePool = new NodePool(nodeConfiguration,
+                new NodeHttpClient(nodeConfiguration, meterRegistry), meterRegistry);
+        tokenEvents = new TokenEvents(quorum, blockHeads, nodePool, nodeConfiguration);
+        eventStreams = new EventStreams(tokenEvents, nodeConfiguration);
+    }
+
+    @After
+    public void tearDown() {
+        eventStreams.shutdown();
+        tokenEvents.shutdown();
+        blockHeads.shutdown();
+        nodePool.shutdown();
+        testNode.close();
+    }
+
+    @Test
+    public void testBlockedClientHoldsBufferSize() throws Exception {
+        ClientTransactionManager transactionManager =
+                new ClientTransactionManager(quorum, Erc20TestNode.DEFAULT_ACCOUNT);
+        String contractAddress = HumanStandardToken.deploy(
+                quorum, transactionManager, new StaticGasProvider(BigInteger.ZERO, BigInteger.ONE),
+                BigInteger.valueOf(1000), "Token", BigInteger.ZERO, "T")
+                .send().getContractAddress();
+
+        AtomicInteger delivered = new AtomicInteger();
+        CountDownLatch unblocked = new CountDownLatch(1);
+        // Blocks on the first log, as a client that has stopped reading would
+        Disposable disposable = eventStreams.delivered(contractAddress).subscribe(tokenLog -> {
+            delivered.incrementAndGet();
+            unblocked.await();
+        });
+        try {
+            await(() -> tokenEvents.coveredBlock(contractAddress) != null);
+
+            String data = FunctionEncoder.encode(TokenFunctions.transfer(TO, BigInteger.ONE));
+            BigInteger lastBlock = null;
+            for (int i = 0; i < TRANSFERS; i++) {
+                transactionManager.sendTransaction(
+                        BigInteger.ZERO, BigInteger.ONE, contractAddress, data, BigInteger.ZERO);
+                lastBlock = quorum.ethBlockNumber().send().getBlockNumber();
+            }
+            BigInteger published = lastBlock;
+            await(() -> tokenEvents.coveredBlock(contractAddress).compareTo(published) >= 0);
+
+            // The log being sent, then the buffer, with the rest dropped
+            unblocked.countDown();
+            await(() -> delivered.get() >= 1 + BUFFER_SIZE);
+            Thread.sleep(200);
+            assertThat(delivered.get(), is(1 + BUFFER_SIZE));
+        } finally {
+            unblocked.countDown();
+            disposable.dispose();
+        }
+    }
+
+    private static void await(Condition condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.met()) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean met() throws Exception;
+    }
+}
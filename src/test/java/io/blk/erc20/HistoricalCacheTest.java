@@ -0,0 +1,72 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.quorum.Quorum;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class HistoricalCacheTest {
+
+    private static final String CONTRACT_ADDRESS = "0x4d8b7e26b6f2b9a2c4a3b8d5a1d2e3f4a5b6c7d8";
+
+    private static final String OWNER = "0xed9d02e382b34818e88b88a309c7fe71e65f419d";
+
+    private final NodeConfiguration nodeConfiguration = new NodeConfiguration();
+
+    private HistoricalCache historicalCache;
+
+    @Before
+    public void setUp() {
+        historicalCache = historicalCache();
+    }
+
+    @Test
+    public void testOnlyFinalBlocksCached() {
+        String data = TokenCalldata.balanceOf(OWNER);
+        BigInteger block = BigInteger.valueOf(88);
+
+        // Nothing is final until the latest block is known
+        historicalCache.put(CONTRACT_ADDRESS, data, block, BigInteger.TEN);
+        assertThat(historicalCache.get(CONTRACT_ADDRESS, data, block), is(nullValue()));
+
+        historicalCache.head(BigInteger.valueOf(100));
+        assertThat(historicalCache.isFinal(block), is(true));
+        assertThat(historicalCache.isFinal(block.add(BigInteger.ONE)), is(false));
+        historicalCache.put(CONTRACT_ADDRESS, data, block, BigInteger.TEN);
+        historicalCache.put(CONTRACT_ADDRESS, data, block.add(BigInteger.ONE), BigInteger.ONE);
+        assertThat(historicalCache.get(CONTRACT_ADDRESS.toUpperCase().replace("0X", "0x"),
+                data, block), is(BigInteger.TEN));
+        assertThat(historicalCache.get(CONTRACT_ADDRESS, data, block.add(BigInteger.ONE)),
+                is(nullValue()));
+        assertThat(historicalCache.get(CONTRACT_ADDRESS, TokenCalldata.TOTAL_SUPPLY, block),
+                is(nullValue()));
+
+        // An older head, such as from a lagging node, doesn't move back what's final
+        historicalCache.head(BigInteger.valueOf(50));
+        assertThat(historicalCache.isFinal(block), is(true));
+    }
+
+    @Test
+    public void testDisabled() {
+        nodeConfiguration.setHistoricalCacheSize(0);
+        historicalCache = historicalCache();
+        historicalCache.head(BigInteger.valueOf(100));
+        historicalCache.put(
+                CONTRACT_ADDRESS, TokenCalldata.TOTAL_SUPPLY, BigInteger.ONE, BigInteger.TEN);
+        assertThat(historicalCache.get(CONTRACT_ADDRESS, TokenCalldata.TOTAL_SUPPLY,
+                BigInteger.ONE), is(nullValue()));
+    }
+
+    private HistoricalCache historicalCache() {
+        // Never sends a request, new heads are only pushed over WebSocket
+        return new HistoricalCache(
+                nodeConfiguration,
+                new BlockHeads(Quorum.build(new HttpService()), nodeConfiguration));
+    }
+}
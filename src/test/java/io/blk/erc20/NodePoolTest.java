@@ -0,0 +1,139 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import io.blk.erc20.NodeConfiguration.NodeEndpoint.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.quorum.Quorum;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class NodePoolTest {
+
+    private static final String CONTRACT_ADDRESS = "0x4d8b7e26b6f2b9a2c4a3b8d5a1d2e3f4a5b6c7d8";
+
+    private static final int SELECTIONS = 50;
+
+    private final Quorum quorum = Quorum.build(new HttpService());
+
+    private Erc20TestNode writeNode;
+
+    private Erc20TestNode readNode;
+
+    private NodePool nodePool;
+
+    @Before
+    public void setUp() throws Exception {
+        writeNode = Erc20TestNode.start();
+        readNode = Erc20TestNode.start();
+        // Each deployment mines a block, leaving the read node two blocks behind
+        writeNode.deployFactory();
+        writeNode.deployFactory();
+
+        NodeConfiguration nodeConfiguration = new NodeConfiguration();
+        nodeConfiguration.getNodeEndpoints().add(
+                endpoint(writeNode, EnumSet.allOf(Role.class)));
+        nodeConfiguration.getNodeEndpoints().add(endpoint(readNode, EnumSet.of(Role.READ)));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        nodePool = new NodePool(nodeConfiguration,
+                new NodeHttpClient(nodeConfiguration, meterRegistry), meterRegistry);
+
+        // Heads are learnt by the first health check
+        long deadline = System.currentTimeMillis() + 10000;
+        while (nodePool.getStatistics().stream().anyMatch(node -> node.getHead() == null)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Heads of the nodes not learnt");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        nodePool.shutdown();
+        writeNode.close();
+        readNode.close();
+    }
+
+    @Test
+    public void testReadsOfBlockGoToNodesWithIt() {
+        Set<String> urls = new HashSet<>();
+        for (int i = 0; i < SELECTIONS; i++) {
+            urls.add(select(call(BigInteger.valueOf(2))));
+        }
+        assertThat(urls, is(Collections.singleton(writeNode.getUrl())));
+
+        // Ahead of every node, so read from the one furthest ahead
+        assertThat(select(logs(BigInteger.ONE, BigInteger.TEN)), is(writeNode.getUrl()));
+    }
+
+    @Test
+    public void testPinnedReadsGoToOneNode() {
+        for (int pins = 0; pins < 10; pins++) {
+            try (NodePool.Pin pin = nodePool.pin(Role.READ)) {
+                String url = select(quorum.ethBlockNumber());
+                for (int i = 0; i < SELECTIONS; i++) {
+                    assertThat(select(logs(BigInteger.ZERO, BigInteger.ZERO)), is(url));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPrivateReadsGoToWriteNode() {
+        String transactionHash =
+                "0x0734f1d59e0d930e4f3a6d95aab3b7cbfec4aeac3fdcfaf8c1417b356d9c24e7";
+        nodePool.privateContract(CONTRACT_ADDRESS.toUpperCase().replace("0X", "0x"));
+        nodePool.privateTransaction(transactionHash);
+
+        for (int i = 0; i < SELECTIONS; i++) {
+            assertThat(select(call(null)), is(writeNode.getUrl()));
+            assertThat(select(logs(BigInteger.ZERO, BigInteger.ZERO)), is(writeNode.getUrl()));
+            assertThat(select(quorum.ethGetTransactionReceipt(transactionHash)),
+                    is(writeNode.getUrl()));
+        }
+        assertThat(nodePool.readRole(Collections.singleton(CONTRACT_ADDRESS)), is(Role.WRITE));
+    }
+
+    private String select(Request<?, ?> request) {
+        return nodePool.select(request, Collections.emptySet()).getUrl();
+    }
+
+    private Request<?, ?> call(BigInteger blockNumber) {
+        return quorum.ethCall(
+                Transaction.createEthCallTransaction(
+                        Erc20TestNode.DEFAULT_ACCOUNT, CONTRACT_ADDRESS, "0x18160ddd"),
+                blockNumber == null
+                        ? DefaultBlockParameterName.LATEST
+                        : DefaultBlockParameter.valueOf(blockNumber));
+    }
+
+    private Request<?, ?> logs(BigInteger fromBlock, BigInteger toBlock) {
+        return quorum.ethGetLogs(new EthFilter(
+                DefaultBlockParameter.valueOf(fromBlock),
+                DefaultBlockParameter.valueOf(toBlock),
+                CONTRACT_ADDRESS));
+    }
+
+    private static NodeConfiguration.NodeEndpoint endpoint(
+            Erc20TestNode testNode, Set<Role> roles) {
+        NodeConfiguration.NodeEndpoint endpoint = new NodeConfiguration.NodeEndpoint();
+        endpoint.setUrl(testNode.getUrl());
+        endpoint.setRoles(roles);
+        return endpoint;
+    }
+}
@@ -0,0 +1,98 @@
+package io.blk.erc20;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.quorum.Quorum;
+import org.web3j.tx.ClientTransactionManager;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class NonceManagerTest {
+
+    private static final String TO = "0xca843569e3427144cead5e4d5999a3d0ccf92b8e";
+
+    private Erc20TestNode testNode;
+
+    private Quorum quorum;
+
+    private NonceManager nonceManager;
+
+    @Before
+    public void setUp() throws IOException {
+        testNode = Erc20TestNode.start();
+        quorum = Quorum.build(new HttpService(testNode.getUrl()));
+        NodeConfiguration nodeConfiguration = new NodeConfiguration();
+        nodeConfiguration.setLocalNonces(true);
+        nodeConfiguration.setFromAddress(Erc20TestNode.DEFAULT_ACCOUNT);
+        nonceManager = new NonceManager(quorum, nodeConfiguration);
+    }
+
+    @After
+    public void tearDown() {
+        testNode.close();
+    }
+
+    @Test
+    public void testResyncKeepsNoncesInFlight() throws IOException {
+        assertThat(nonceManager.acquire(Erc20TestNode.DEFAULT_ACCOUNT), is(BigInteger.ZERO));
+        assertThat(nonceManager.acquire(Erc20TestNode.DEFAULT_ACCOUNT), is(BigInteger.ONE));
+
+        // Neither send has reached the node, which still counts no transactions
+        nonceManager.resync(Erc20TestNode.DEFAULT_ACCOUNT);
+        assertThat(nonceManager.acquire(Erc20TestNode.DEFAULT_ACCOUNT),
+                is(BigInteger.valueOf(2)));
+    }
+
+    @Test
+    public void testSentAgainWhenNonceTaken() throws IOException {
+        NonceTransactionManager transactionManager = new NonceTransactionManager(
+                quorum, Erc20TestNode.DEFAULT_ACCOUNT, null, nonceManager);
+        send(transactionManager);
+
+        // Another sender from the same account takes the next nonce
+        send(new ClientTransactionManager(quorum, Erc20TestNode.DEFAULT_ACCOUNT));
+
+        send(transactionManager);
+        assertThat(quorum.ethGetTransactionCount(
+                Erc20TestNode.DEFAULT_ACCOUNT, DefaultBlockParameterName.PENDING)
+                        .send().getTransactionCount(),
+                is(BigInteger.valueOf(3)));
+    }
+
+    @Test
+    public void testNonceOfFailedSendReused() throws IOException {
+        // Nothing listens on the port, so the send never reaches the node
+        NonceTransactionManager unreachable = new NonceTransactionManager(
+                Quorum.build(new HttpService("http://localhost:1")),
+                Erc20TestNode.DEFAULT_ACCOUNT, null, nonceManager);
+        try {
+            send(unreachable);
+            fail("Send reached the node");
+        } catch (IOException expected) {
+            // Left a gap at nonce 0 unless it is handed out again
+        }
+
+        send(new NonceTransactionManager(
+                quorum, Erc20TestNode.DEFAULT_ACCOUNT, null, nonceManager));
+        assertThat(quorum.ethGetTransactionCount(
+                Erc20TestNode.DEFAULT_ACCOUNT, DefaultBlockParameterName.PENDING)
+                        .send().getTransactionCount(),
+                is(BigInteger.ONE));
+    }
+
+    private static void send(ClientTransactionManager transactionManager) throws IOException {
+        EthSendTransaction ethSendTransaction = transactionManager.sendTransaction(
+                BigInteger.ONE, BigInteger.ONE, TO, "0x", BigInteger.ZERO);
+        assertFalse(ethSendTransaction.hasError());
+    }
+}
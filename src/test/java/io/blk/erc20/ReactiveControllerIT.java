@@ -0,0 +1,12 @@
+package io.blk.erc20;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs {@link ControllerIT} against {@link ReactiveController}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+public class ReactiveControllerIT extends ControllerIT {
+}
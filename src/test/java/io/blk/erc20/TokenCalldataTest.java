@@ -0,0 +1,143 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.utils.Numeric;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TokenCalldataTest {
+
+    private static final BigInteger MAX_UINT256 =
+            BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testEncodingMatchesFunctionEncoder() {
+        List<String> addresses = addresses();
+        List<BigInteger> values = values();
+        for (String address : addresses) {
+            String other = addresses.get(random.nextInt(addresses.size()));
+            assertThat(TokenCalldata.balanceOf(address),
+                    is(FunctionEncoder.encode(TokenFunctions.balanceOf(address))));
+            assertThat(TokenCalldata.allowance(address, other),
+                    is(FunctionEncoder.encode(TokenFunctions.allowance(address, other))));
+
+            for (BigInteger value : values) {
+                assertThat(TokenCalldata.transfer(address, value),
+                        is(FunctionEncoder.encode(TokenFunctions.transfer(address, value))));
+                assertThat(TokenCalldata.transferFrom(other, address, value),
+                        is(FunctionEncoder.encode(
+                                TokenFunctions.transferFrom(other, address, value))));
+                assertThat(TokenCalldata.approve(address, value),
+                        is(FunctionEncoder.encode(TokenFunctions.approve(address, value))));
+            }
+        }
+        assertThat(TokenCalldata.TOTAL_SUPPLY,
+                is(FunctionEncoder.encode(TokenFunctions.totalSupply())));
+    }
+
+    @Test
+    public void testEncodingFailsAsGeneric() {
+        String address = addresses().get(0);
+        List<BigInteger> values = Arrays.asList(
+                BigInteger.ONE.negate(), MAX_UINT256.add(BigInteger.ONE));
+        for (BigInteger value : values) {
+            assertFailsAsGeneric(() -> TokenCalldata.transfer(address, value),
+                    () -> FunctionEncoder.encode(TokenFunctions.transfer(address, value)));
+        }
+        String tooLong = "0x" + hex(21);
+        assertFailsAsGeneric(() -> TokenCalldata.balanceOf(tooLong),
+                () -> FunctionEncoder.encode(TokenFunctions.balanceOf(tooLong)));
+        String notHex = "0x" + hex(19) + "zz";
+        assertFailsAsGeneric(() -> TokenCalldata.balanceOf(notHex),
+                () -> FunctionEncoder.encode(TokenFunctions.balanceOf(notHex)));
+    }
+
+    @Test
+    public void testDecodingMatchesFunctionReturnDecoder() {
+        List<String> encoded = new ArrayList<>();
+        for (BigInteger value : values()) {
+            String word = Numeric.toHexStringWithPrefixZeroPadded(value, 64);
+            encoded.add(word);
+            encoded.add(word.toUpperCase().replace("0X", "0x"));
+            encoded.add(Numeric.cleanHexPrefix(word));
+            // Anything after the first word is ignored
+            encoded.add(word + hex(32));
+        }
+        for (String value : encoded) {
+            List<Type> values = FunctionReturnDecoder.decode(
+                    value, TokenFunctions.totalSupply().getOutputParameters());
+            assertThat(value, TokenCalldata.decodeUint256(value), is(values.get(0).getValue()));
+        }
+        assertThat(TokenCalldata.decodeUint256("0x"), is(nullValue()));
+
+        String tooShort = "0x" + hex(16);
+        assertFailsAsGeneric(() -> TokenCalldata.decodeUint256(tooShort),
+                () -> FunctionReturnDecoder.decode(
+                        tooShort, TokenFunctions.totalSupply().getOutputParameters()));
+    }
+
+    private List<String> addresses() {
+        List<String> addresses = new ArrayList<>(Arrays.asList(
+                "0x0000000000000000000000000000000000000000",
+                "0xffffffffffffffffffffffffffffffffffffffff",
+                "0xed9d02e382b34818e88b88a309c7fe71e65f419d",
+                "0xED9D02E382B34818E88B88A309C7FE71E65F419D",
+                "ca843569e3427144cead5e4d5999a3d0ccf92b8e",
+                "0x1"));
+        for (int i = 0; i < 100; i++) {
+            addresses.add("0x" + hex(20));
+        }
+        return addresses;
+    }
+
+    private List<BigInteger> values() {
+        List<BigInteger> values = new ArrayList<>(Arrays.asList(
+                BigInteger.ZERO,
+                BigInteger.ONE,
+                BigInteger.valueOf(Long.MAX_VALUE),
+                BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE),
+                BigInteger.TEN.pow(18),
+                MAX_UINT256));
+        for (int bits = 1; bits <= 256; bits += 17) {
+            values.add(new BigInteger(bits, random));
+        }
+        return values;
+    }
+
+    private String hex(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return Numeric.toHexStringNoPrefix(value);
+    }
+
+    private static void assertFailsAsGeneric(Runnable fast, Runnable generic) {
+        Class<?> expected = null;
+        try {
+            generic.run();
+            fail("Generic path should have failed");
+        } catch (RuntimeException e) {
+            expected = e.getClass();
+        }
+        try {
+            fast.run();
+            fail("Fast path should have failed");
+        } catch (RuntimeException e) {
+            assertEquals(expected, e.getClass());
+        }
+    }
+}
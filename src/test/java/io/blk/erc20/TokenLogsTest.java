@@ -0,0 +1,116 @@
+package io.blk.erc20;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import io.blk.erc20.generated.HumanStandardToken;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.quorum.Quorum;
+import org.web3j.tx.ReadonlyTransactionManager;
+import org.web3j.tx.gas.DefaultGasProvider;
+import org.web3j.utils.Numeric;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class TokenLogsTest {
+
+    private static final String CONTRACT_ADDRESS = "0x4d8b7e26b6f2b9a2c4a3b8d5a1d2e3f4a5b6c7d8";
+
+    private final Random random = new Random(42);
+
+    private HumanStandardToken humanStandardToken;
+
+    @Before
+    public void setUp() {
+        // Never sends a request, the wrapper only needs a client to be constructed
+        Quorum quorum = Quorum.build(new HttpService());
+        humanStandardToken = HumanStandardToken.load(
+                CONTRACT_ADDRESS, quorum,
+                new ReadonlyTransactionManager(quorum, Erc20TestNode.DEFAULT_ACCOUNT),
+                new DefaultGasProvider());
+    }
+
+    @Test
+    public void testDecodingMatchesWrapper() {
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String topic = i % 2 == 0 ? TokenEvents.TRANSFER_TOPIC : TokenEvents.APPROVAL_TOPIC;
+            logs.add(log(topic, address(), address(), new BigInteger(random.nextInt(257), random)));
+        }
+        logs.add(log(TokenEvents.TRANSFER_TOPIC,
+                "0xED9D02E382B34818E88B88A309C7FE71E65F419D", address(), BigInteger.ZERO));
+        TransactionReceipt transactionReceipt = new TransactionReceipt();
+        transactionReceipt.setLogs(logs);
+
+        List<HumanStandardToken.TransferEventResponse> transfers =
+                humanStandardToken.getTransferEvents(transactionReceipt);
+        List<HumanStandardToken.ApprovalEventResponse> approvals =
+                humanStandardToken.getApprovalEvents(transactionReceipt);
+        int transfer = 0;
+        int approval = 0;
+        for (Log log : logs) {
+            IndexedEvent.Type type = TokenLogs.type(log);
+            if (type == IndexedEvent.Type.TRANSFER) {
+                HumanStandardToken.TransferEventResponse expected = transfers.get(transfer++);
+                assertThat(TokenLogs.from(log), is(expected._from));
+                assertThat(TokenLogs.to(log), is(expected._to));
+                assertThat(TokenLogs.value(log), is(expected._value));
+            } else {
+                HumanStandardToken.ApprovalEventResponse expected = approvals.get(approval++);
+                assertThat(TokenLogs.from(log), is(expected._owner));
+                assertThat(TokenLogs.to(log), is(expected._spender));
+                assertThat(TokenLogs.value(log), is(expected._value));
+            }
+        }
+        assertThat(transfer, is(transfers.size()));
+        assertThat(approval, is(approvals.size()));
+    }
+
+    @Test
+    public void testOtherLogsIgnored() {
+        Log other = log(TokenEvents.TRANSFER_TOPIC, address(), address(), BigInteger.ONE);
+        other.setTopics(Arrays.asList(
+                Numeric.toHexStringWithPrefixZeroPadded(BigInteger.ONE, 64),
+                other.getTopics().get(1), other.getTopics().get(2)));
+        assertThat(TokenLogs.type(other), is(nullValue()));
+
+        // ERC-721 transfers share the signature, with the token id as a third indexed topic
+        Log erc721 = log(TokenEvents.TRANSFER_TOPIC, address(), address(), BigInteger.ONE);
+        List<String> topics = new ArrayList<>(erc721.getTopics());
+        topics.add(Numeric.toHexStringWithPrefixZeroPadded(BigInteger.TEN, 64));
+        erc721.setTopics(topics);
+        erc721.setData("0x");
+        assertThat(TokenLogs.type(erc721), is(nullValue()));
+
+        Log anonymous = log(TokenEvents.APPROVAL_TOPIC, address(), address(), BigInteger.ONE);
+        anonymous.setTopics(null);
+        assertThat(TokenLogs.type(anonymous), is(nullValue()));
+    }
+
+    private Log log(String eventTopic, String from, String to, BigInteger value) {
+        Log log = new Log();
+        log.setAddress(CONTRACT_ADDRESS);
+        log.setTopics(Arrays.asList(eventTopic, topic(from), topic(to)));
+        log.setData(Numeric.toHexStringWithPrefixZeroPadded(value, 64));
+        return log;
+    }
+
+    private String address() {
+        byte[] address = new byte[20];
+        random.nextBytes(address);
+        return Numeric.toHexString(address);
+    }
+
+    private static String topic(String address) {
+        return "0x000000000000000000000000" + Numeric.cleanHexPrefix(address);
+    }
+}